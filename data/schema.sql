@@ -6,6 +6,39 @@ CREATE TABLE IF NOT EXISTS students (
     gpa REAL NOT NULL,
     email TEXT NOT NULL,
     phone_number TEXT NOT NULL,
-    date_added TEXT NOT NULL,
+    date_added INTEGER NOT NULL, -- epoch milliseconds (schema migration 4)
     status TEXT NOT NULL
-);
\ No newline at end of file
+);
+
+-- Indexes (schema migration 2)
+CREATE INDEX IF NOT EXISTS idx_students_status_programme_gpa ON students (status, programme, gpa);
+CREATE INDEX IF NOT EXISTS idx_students_status_gpa ON students (status, gpa);
+CREATE INDEX IF NOT EXISTS idx_students_full_name ON students (full_name, student_id);
+CREATE INDEX IF NOT EXISTS idx_students_active_programme_level_gpa ON students (programme, level, gpa) WHERE status = 'Active';
+
+-- Full-text search (schema migration 3), kept in sync by triggers
+CREATE VIRTUAL TABLE IF NOT EXISTS students_fts USING fts5(
+    student_id, full_name, email,
+    content = 'students', content_rowid = 'rowid', tokenize = 'trigram'
+);
+
+-- Change journal for incremental exports (schema migration 5), filled by triggers
+CREATE TABLE IF NOT EXISTS student_changes (
+    seq INTEGER PRIMARY KEY AUTOINCREMENT,
+    student_id TEXT NOT NULL,
+    change_type TEXT NOT NULL, -- INSERT, UPDATE or DELETE (soft delete to Inactive, or row removed)
+    changed_at INTEGER NOT NULL -- epoch milliseconds
+);
+
+-- Running GPA statistics per (programme, level, status) group (schema migration 6), kept up to date by triggers
+CREATE TABLE IF NOT EXISTS student_aggregates (
+    programme TEXT NOT NULL,
+    level INTEGER NOT NULL,
+    status TEXT NOT NULL,
+    student_count INTEGER NOT NULL,
+    sum_gpa REAL NOT NULL,
+    sum_squares_gpa REAL NOT NULL,
+    min_gpa REAL NOT NULL,
+    max_gpa REAL NOT NULL,
+    PRIMARY KEY (programme, level, status)
+) WITHOUT ROWID;
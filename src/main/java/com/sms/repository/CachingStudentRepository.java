@@ -0,0 +1,347 @@
+package com.sms.repository;
+
+import com.sms.domain.Student;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Read-through cache in front of another repository.
+// findStudentById/existsById are answered from a bounded LRU map keyed by
+// student ID; every write made through this instance drops the entries it
+// touches. Writes made some other way (another connection, another process)
+// are not seen - use it only where this instance is the single writer.
+// List, page, stream and aggregate queries always go to the delegate.
+public class CachingStudentRepository implements StudentRepository {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final StudentRepository delegate;
+    private final Map<String, Student> cache;
+    private long hits;
+    private long misses;
+    private long evictions;
+    // Bumped by every invalidation, so a read that raced with a write is not cached
+    private long generation;
+
+    public CachingStudentRepository(StudentRepository delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES);
+    }
+
+    public CachingStudentRepository(StudentRepository delegate, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.delegate = delegate;
+        // Access order, so the eldest entry is the least recently used
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Student> eldest) {
+                if (size() > maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Student findStudentById(String studentId) {
+        long readGeneration;
+        synchronized (this) {
+            Student cached = cache.get(studentId);
+            if (cached != null) {
+                hits++;
+                return copyOf(cached);
+            }
+            misses++;
+            readGeneration = generation;
+        }
+
+        Student student = delegate.findStudentById(studentId);
+        if (student != null) {
+            synchronized (this) {
+                if (generation == readGeneration) {
+                    cache.put(studentId, copyOf(student));
+                }
+            }
+        }
+        return student;
+    }
+
+    // A miss loads the whole row (the same primary-key lookup), so a student that
+    // exists is cached for the findStudentById that usually follows
+    @Override
+    public boolean existsById(String studentId) {
+        long readGeneration;
+        synchronized (this) {
+            if (cache.containsKey(studentId)) {
+                hits++;
+                return true;
+            }
+            misses++;
+            readGeneration = generation;
+        }
+
+        Student student = delegate.findStudentById(studentId);
+        if (student != null) {
+            synchronized (this) {
+                if (generation == readGeneration) {
+                    cache.put(studentId, copyOf(student));
+                }
+            }
+        }
+        return student != null;
+    }
+
+    // Writes: forward, then drop whatever they may have changed
+
+    @Override
+    public void addStudent(Student student) {
+        try {
+            delegate.addStudent(student);
+        } finally {
+            invalidate(student.getStudentId());
+        }
+    }
+
+    @Override
+    public void addStudents(List<Student> students) {
+        try {
+            delegate.addStudents(students);
+        } finally {
+            invalidateStudents(students);
+        }
+    }
+
+    @Override
+    public int upsertStudents(List<Student> students) {
+        try {
+            return delegate.upsertStudents(students);
+        } finally {
+            invalidateStudents(students);
+        }
+    }
+
+    @Override
+    public void updateStudent(Student student) {
+        try {
+            delegate.updateStudent(student);
+        } finally {
+            invalidate(student.getStudentId());
+        }
+    }
+
+    @Override
+    public void deleteStudent(String studentId) {
+        try {
+            delegate.deleteStudent(studentId);
+        } finally {
+            invalidate(studentId);
+        }
+    }
+
+    @Override
+    public int setStatus(Collection<String> studentIds, String status) {
+        try {
+            return delegate.setStatus(studentIds, status);
+        } finally {
+            synchronized (this) {
+                generation++;
+                studentIds.forEach(cache::remove);
+            }
+        }
+    }
+
+    @Override
+    public int hardDeleteStudents(Collection<String> studentIds) {
+        try {
+            return delegate.hardDeleteStudents(studentIds);
+        } finally {
+            synchronized (this) {
+                generation++;
+                studentIds.forEach(cache::remove);
+            }
+        }
+    }
+
+    @Override
+    public int setStatusWhere(StudentQuery filter, String status) {
+        try {
+            return delegate.setStatusWhere(filter, status);
+        } finally {
+            // Which rows matched is only known to the database
+            invalidateAll();
+        }
+    }
+
+    // Reads that are not cached
+
+    @Override
+    public List<Student> getAllStudents() {
+        return delegate.getAllStudents();
+    }
+
+    @Override
+    public List<Student> findStudents(StudentQuery query) {
+        return delegate.findStudents(query);
+    }
+
+    @Override
+    public StudentPage findStudentsPage(StudentQuery query, StudentPage.Cursor after, int pageSize) {
+        return delegate.findStudentsPage(query, after, pageSize);
+    }
+
+    @Override
+    public Stream<Student> streamStudents(StudentQuery query) {
+        return delegate.streamStudents(query);
+    }
+
+    @Override
+    public void forEachStudent(StudentQuery query, Consumer<Student> action) {
+        delegate.forEachStudent(query, action);
+    }
+
+    @Override
+    public long[] countGpaBands(StudentQuery filter) {
+        return delegate.countGpaBands(filter);
+    }
+
+    @Override
+    public List<StudentAggregate> aggregateByProgramme(StudentQuery filter) {
+        return delegate.aggregateByProgramme(filter);
+    }
+
+    @Override
+    public List<StudentAggregate> aggregateByLevel(StudentQuery filter) {
+        return delegate.aggregateByLevel(filter);
+    }
+
+    @Override
+    public List<StudentAggregate> aggregateByStatus(StudentQuery filter) {
+        return delegate.aggregateByStatus(filter);
+    }
+
+    @Override
+    public int countStudents(StudentQuery query) {
+        return delegate.countStudents(query);
+    }
+
+    @Override
+    public List<Student> searchStudents(String term, int limit) {
+        return delegate.searchStudents(term, limit);
+    }
+
+    @Override
+    public List<StudentChange> getChangesSince(long afterSeq, int limit) {
+        return delegate.getChangesSince(afterSeq, limit);
+    }
+
+    @Override
+    public long getLatestChangeSeq() {
+        return delegate.getLatestChangeSeq();
+    }
+
+    @Override
+    public int deleteChangesBefore(long seq) {
+        return delegate.deleteChangesBefore(seq);
+    }
+
+    @Override
+    public Set<String> existingIds(Collection<String> studentIds) {
+        return delegate.existingIds(studentIds);
+    }
+
+    @Override
+    public <T> T readSnapshot(Supplier<T> reads) {
+        return delegate.readSnapshot(reads);
+    }
+
+    @Override
+    public long getChangeToken() {
+        return delegate.getChangeToken();
+    }
+
+    @Override
+    public void backupTo(Path target, BackupListener listener) {
+        delegate.backupTo(target, listener);
+    }
+
+    @Override
+    public void restoreFrom(Path databaseFile) {
+        try {
+            delegate.restoreFrom(databaseFile);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void close() {
+        invalidateAll();
+        delegate.close();
+    }
+
+    // Cache management and statistics
+
+    public synchronized void invalidate(String studentId) {
+        generation++;
+        cache.remove(studentId);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        cache.clear();
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CachingStudentRepository[size=" + cache.size() + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+
+    private synchronized void invalidateStudents(List<Student> students) {
+        if (students == null) return;
+        generation++;
+        for (Student student : students) {
+            cache.remove(student.getStudentId());
+        }
+    }
+
+    // Student is mutable, so callers never get the cached instance itself
+    private static Student copyOf(Student student) {
+        return new Student(
+                student.getStudentId(),
+                student.getFullName(),
+                student.getProgramme(),
+                student.getLevel(),
+                student.getGpa(),
+                student.getEmail(),
+                student.getPhoneNumber(),
+                student.getDateAdded(),
+                student.getStatus()
+        );
+    }
+}
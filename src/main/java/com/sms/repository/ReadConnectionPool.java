@@ -0,0 +1,125 @@
+package com.sms.repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// A fixed set of read-only connections to one WAL database. Under WAL a reader
+// sees the last committed state and never waits for the writer, so reports can
+// run while an import is still writing.
+// Each connection has its own StatementCache; a borrowed Lease is used by one
+// thread at a time and must be handed back with release().
+class ReadConnectionPool implements AutoCloseable {
+
+    // How long acquire() waits for a free connection before giving up
+    static final long ACQUIRE_TIMEOUT_SECONDS = 30;
+
+    static final class Lease {
+        final Connection connection;
+        final StatementCache statements;
+
+        private Lease(Connection connection) {
+            this.connection = connection;
+            this.statements = new StatementCache(connection, StatementCache.DEFAULT_MAX_SIZE);
+        }
+    }
+
+    private final List<Lease> all = new ArrayList<>();
+    private final BlockingQueue<Lease> idle;
+    // Separate connection for PRAGMA data_version, which counts commits seen
+    // by that one connection - the pooled ones would each give a different answer
+    private Connection monitor;
+
+    ReadConnectionPool(String jdbcUrl, SQLiteConnectionProfile profile, int size) throws SQLException {
+        if (size < 1) {
+            throw new IllegalArgumentException("Read pool size must be at least 1");
+        }
+        idle = new ArrayBlockingQueue<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                Lease lease = new Lease(open(jdbcUrl, profile));
+                all.add(lease);
+                idle.add(lease);
+            }
+            monitor = open(jdbcUrl, profile);
+        } catch (SQLException e) {
+            closeAll();
+            throw e;
+        }
+    }
+
+    private static Connection open(String jdbcUrl, SQLiteConnectionProfile profile) throws SQLException {
+        Connection connection = DriverManager.getConnection(jdbcUrl);
+        try {
+            profile.applyReadOnly(connection);
+            return connection;
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    Lease acquire() throws SQLException {
+        try {
+            Lease lease = idle.poll(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (lease == null) {
+                // Usually a student stream that was never closed
+                throw new SQLException("No read connection free after " + ACQUIRE_TIMEOUT_SECONDS + "s");
+            }
+            return lease;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a read connection", e);
+        }
+    }
+
+    void release(Lease lease) {
+        idle.offer(lease);
+    }
+
+    synchronized long dataVersion() throws SQLException {
+        try (Statement stmt = monitor.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA data_version")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    int size() {
+        return all.size();
+    }
+
+    int idleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public void close() {
+        closeAll();
+    }
+
+    private void closeAll() {
+        for (Lease lease : all) {
+            lease.statements.close();
+            closeQuietly(lease.connection);
+        }
+        all.clear();
+        idle.clear();
+        closeQuietly(monitor);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing read connection: " + e.getMessage());
+        }
+    }
+}
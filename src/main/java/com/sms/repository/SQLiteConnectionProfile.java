@@ -0,0 +1,165 @@
+package com.sms.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+// PRAGMA settings applied to every SQLite connection the repository opens.
+// The defaults use WAL journaling, so readers are not blocked while a write is
+// in progress and a commit needs one fsync instead of two. Each value can be
+// overridden in data/settings.properties with the db.* keys below.
+public class SQLiteConnectionProfile {
+
+    public static final String JOURNAL_MODE_KEY = "db.journalMode";
+    public static final String SYNCHRONOUS_KEY = "db.synchronous";
+    public static final String CACHE_SIZE_KB_KEY = "db.cacheSizeKb";
+    public static final String MMAP_SIZE_KEY = "db.mmapSize";
+    public static final String TEMP_STORE_KEY = "db.tempStore";
+    public static final String BUSY_TIMEOUT_KEY = "db.busyTimeoutMs";
+    public static final String READ_CONNECTIONS_KEY = "db.readConnections";
+
+    // Read-only connections opened next to the writer when the journal is WAL
+    public static final int DEFAULT_READ_CONNECTIONS = 4;
+    public static final int MAX_READ_CONNECTIONS = 16;
+
+    private static final Set<String> JOURNAL_MODES = Set.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    private static final Set<String> SYNCHRONOUS_MODES = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final Set<String> TEMP_STORES = Set.of("DEFAULT", "FILE", "MEMORY");
+
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSizeKb;
+    private final long mmapSize;
+    private final String tempStore;
+    private final int busyTimeoutMillis;
+    private final int readConnections;
+
+    public SQLiteConnectionProfile(String journalMode, String synchronous, int cacheSizeKb,
+                                   long mmapSize, String tempStore, int busyTimeoutMillis) {
+        this(journalMode, synchronous, cacheSizeKb, mmapSize, tempStore, busyTimeoutMillis, DEFAULT_READ_CONNECTIONS);
+    }
+
+    public SQLiteConnectionProfile(String journalMode, String synchronous, int cacheSizeKb,
+                                   long mmapSize, String tempStore, int busyTimeoutMillis,
+                                   int readConnections) {
+        // PRAGMA values cannot be bound as parameters, so only known words are accepted
+        this.journalMode = checkOneOf("journal mode", journalMode, JOURNAL_MODES);
+        this.synchronous = checkOneOf("synchronous", synchronous, SYNCHRONOUS_MODES);
+        this.tempStore = checkOneOf("temp store", tempStore, TEMP_STORES);
+        if (cacheSizeKb < 0 || mmapSize < 0 || busyTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Cache size, mmap size and busy timeout cannot be negative");
+        }
+        this.cacheSizeKb = cacheSizeKb;
+        this.mmapSize = mmapSize;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        if (readConnections < 0 || readConnections > MAX_READ_CONNECTIONS) {
+            throw new IllegalArgumentException("Read connections must be between 0 and " + MAX_READ_CONNECTIONS);
+        }
+        this.readConnections = readConnections;
+    }
+
+    // WAL with synchronous=NORMAL: durable across application crashes, and a
+    // power loss can at most lose the last commits (the database stays intact)
+    public static SQLiteConnectionProfile defaults() {
+        return new SQLiteConnectionProfile("WAL", "NORMAL", 16 * 1024, 64L * 1024 * 1024, "MEMORY", 5000);
+    }
+
+    // SQLite's own defaults (rollback journal, synchronous=FULL) - what the
+    // application used before profiles existed; kept for comparison
+    public static SQLiteConnectionProfile legacy() {
+        return new SQLiteConnectionProfile("DELETE", "FULL", 2000, 0, "DEFAULT", 0, 0);
+    }
+
+    // Defaults overridden by any db.* keys present
+    public static SQLiteConnectionProfile fromProperties(Properties props) {
+        SQLiteConnectionProfile d = defaults();
+        return new SQLiteConnectionProfile(
+                props.getProperty(JOURNAL_MODE_KEY, d.journalMode),
+                props.getProperty(SYNCHRONOUS_KEY, d.synchronous),
+                Integer.parseInt(props.getProperty(CACHE_SIZE_KB_KEY, String.valueOf(d.cacheSizeKb)).trim()),
+                Long.parseLong(props.getProperty(MMAP_SIZE_KEY, String.valueOf(d.mmapSize)).trim()),
+                props.getProperty(TEMP_STORE_KEY, d.tempStore),
+                Integer.parseInt(props.getProperty(BUSY_TIMEOUT_KEY, String.valueOf(d.busyTimeoutMillis)).trim()),
+                Integer.parseInt(props.getProperty(READ_CONNECTIONS_KEY, String.valueOf(d.readConnections)).trim()));
+    }
+
+    // Read the profile from a settings file; a missing file or a bad value gives the defaults
+    public static SQLiteConnectionProfile load(Path settingsFile) {
+        if (!Files.exists(settingsFile)) {
+            return defaults();
+        }
+        try (InputStream in = Files.newInputStream(settingsFile)) {
+            Properties props = new Properties();
+            props.load(in);
+            return fromProperties(props);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Invalid database settings in " + settingsFile + ", using defaults: " + e.getMessage());
+            return defaults();
+        }
+    }
+
+    // Apply every PRAGMA to a newly opened connection (before any transaction starts)
+    public void apply(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            // busy_timeout first, so switching journal mode can wait for other connections
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            try (ResultSet rs = stmt.executeQuery("PRAGMA journal_mode = " + journalMode)) {
+                // SQLite answers with the mode actually in use (in-memory databases stay "memory")
+                String actual = rs.next() ? rs.getString(1) : "";
+                if (!journalMode.equalsIgnoreCase(actual)) {
+                    System.out.println(" Journal mode " + journalMode + " not available, using " + actual);
+                }
+            }
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            applyCacheSettings(stmt);
+        }
+    }
+
+    // For the reader pool: the same cache settings, but the journal mode is
+    // left to the writer and query_only makes any write fail straight away
+    public void applyReadOnly(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            applyCacheSettings(stmt);
+            stmt.execute("PRAGMA query_only = ON");
+        }
+    }
+
+    private void applyCacheSettings(Statement stmt) throws SQLException {
+        // A negative cache_size is in KiB rather than pages
+        stmt.execute("PRAGMA cache_size = -" + cacheSizeKb);
+        stmt.execute("PRAGMA mmap_size = " + mmapSize);
+        stmt.execute("PRAGMA temp_store = " + tempStore);
+    }
+
+    public String getJournalMode() { return journalMode; }
+    public String getSynchronous() { return synchronous; }
+    public int getCacheSizeKb() { return cacheSizeKb; }
+    public long getMmapSize() { return mmapSize; }
+    public String getTempStore() { return tempStore; }
+    public int getBusyTimeoutMillis() { return busyTimeoutMillis; }
+    public int getReadConnections() { return readConnections; }
+
+    @Override
+    public String toString() {
+        return "journal_mode=" + journalMode + ", synchronous=" + synchronous + ", cache_size=" + cacheSizeKb
+                + "KiB, mmap_size=" + mmapSize + ", temp_store=" + tempStore + ", busy_timeout=" + busyTimeoutMillis
+                + ", read_connections=" + readConnections;
+    }
+
+    private static String checkOneOf(String name, String value, Set<String> allowed) {
+        String normalized = value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+        if (!allowed.contains(normalized)) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value + " (expected one of " + allowed + ")");
+        }
+        return normalized;
+    }
+}
@@ -1,58 +1,194 @@
 package com.sms.repository;
 
 import com.sms.domain.Student;
+import org.sqlite.ProgressHandler;
+import org.sqlite.SQLiteConnection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-// This class actually talks to the SQLite database
+// This class actually talks to the SQLite database.
+// Writes go to one connection, owned by a single writer thread, and run one at
+// a time in arrival order. Reads borrow a connection from a pool of read-only
+// connections, so under WAL a report never waits for an import to finish.
+// Without WAL (or for an in-memory database) there is no pool and reads queue
+// on the writer thread like writes.
 public class SQLiteStudentRepository implements StudentRepository {
 
+    // Rows sent to SQLite per executeBatch() call during bulk inserts
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    // Rows fetched per round trip when streaming a result set
+    public static final int STREAM_FETCH_SIZE = 500;
+
+    // IDs per IN (...) list in existingIds(); short slices are padded with NULL
+    // so every call uses the same cached statement
+    public static final int ID_LOOKUP_BATCH_SIZE = 500;
+
+    // Shortest search term the full-text index can answer (one trigram)
+    public static final int FTS_MIN_TERM_LENGTH = 3;
+
+    // The application database file
+    public static final String DEFAULT_URL = "jdbc:sqlite:data/students.db";
+
+    // Holds the db.* connection settings (see SQLiteConnectionProfile)
+    public static final String SETTINGS_FILE = "data/settings.properties";
+
+    // SQLite virtual machine steps between backup progress reports
+    private static final int BACKUP_PROGRESS_STEPS = 10_000;
+
+    // How long close() waits for queued writes to finish
+    private static final long WRITER_SHUTDOWN_SECONDS = 30;
+
+    // One unit of database work, given the connection to use and its statement cache
+    @FunctionalInterface
+    private interface SqlWork<T> {
+        T run(Connection connection, StatementCache statements) throws SQLException;
+    }
+
+    // The writer connection and its cache are only touched on the writer thread
     private Connection connection;
+    private StatementCache statements;
+    private final ExecutorService writer;
+    private volatile Thread writerThread;
+    // null when reads share the writer connection
+    private ReadConnectionPool readers;
+    // The pooled connection a readSnapshot() on this thread is reading from
+    private final ThreadLocal<ReadConnectionPool.Lease> snapshotLease = new ThreadLocal<>();
+    // For the connection a stream opens when there is no pool
+    private final String jdbcUrl;
+    private final SQLiteConnectionProfile profile;
+    // A private in-memory database can't be opened a second time
+    private boolean inMemory;
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+    // Writes made through this repository. PRAGMA data_version only changes
+    // for commits made by other connections, so our own writes are counted too.
+    private final AtomicLong writeCount = new AtomicLong();
 
     // Constructor - runs when we create this object
     public SQLiteStudentRepository() {
+        this(DEFAULT_URL, SQLiteConnectionProfile.load(java.nio.file.Paths.get(SETTINGS_FILE)));
+    }
+
+    // Open another database, e.g. a temporary file for tests and benchmarks
+    public SQLiteStudentRepository(String jdbcUrl) {
+        this(jdbcUrl, SQLiteConnectionProfile.defaults());
+    }
+
+    public SQLiteStudentRepository(String jdbcUrl, SQLiteConnectionProfile profile) {
+        this.jdbcUrl = jdbcUrl;
+        this.profile = profile;
+        writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "sms-db-writer");
+            thread.setDaemon(true);
+            writerThread = thread;
+            return thread;
+        });
+
         try {
-            // Create data folder if missing
-            java.nio.file.Files.createDirectories(java.nio.file.Paths.get("data"));
+            if (DEFAULT_URL.equals(jdbcUrl)) {
+                // Create data folder if missing
+                java.nio.file.Files.createDirectories(java.nio.file.Paths.get("data"));
+            }
+
+            // Connect to database (this will create the file automatically)
+            connection = DriverManager.getConnection(jdbcUrl);
+            profile.apply(connection);
+            statements = new StatementCache(connection, StatementCache.DEFAULT_MAX_SIZE);
 
-            // Connect to database (this will create students.db automatically)
-            connection = DriverManager.getConnection("jdbc:sqlite:data/students.db");
+            // Create or upgrade the schema (table, CHECK constraints, indexes)
+            new SchemaMigrator(connection).migrate();
 
-            // Create table with CHECK constraints (required by assignment Section 7)
-            createTable();
+            // Readers only help under WAL; with a rollback journal they would
+            // block the writer instead. An in-memory database reports "memory".
+            String journalMode = journalMode(connection);
+            inMemory = "memory".equalsIgnoreCase(journalMode);
+            if (profile.getReadConnections() > 0 && "wal".equalsIgnoreCase(journalMode)) {
+                readers = new ReadConnectionPool(jdbcUrl, profile, profile.getReadConnections());
+            }
 
             System.out.println(" Database ready!");
 
         } catch (Exception e) {
+            writer.shutdownNow();
             e.printStackTrace();
             throw new RuntimeException("Failed to initialize database", e);
         }
     }
 
-    // Create the students table with CHECK constraints
-    private void createTable() {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS students (
-                student_id TEXT PRIMARY KEY,
-                full_name TEXT NOT NULL,
-                programme TEXT NOT NULL,
-                level INTEGER NOT NULL CHECK (level IN (100, 200, 300, 400, 500, 600, 700)),
-                gpa REAL NOT NULL CHECK (gpa >= 0.0 AND gpa <= 4.0),
-                email TEXT NOT NULL,
-                phone_number TEXT NOT NULL,
-                date_added TEXT NOT NULL,
-                status TEXT NOT NULL CHECK (status IN ('Active', 'Inactive'))
-            )
-            """;
+    private static String journalMode(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA journal_mode")) {
+            return rs.next() ? rs.getString(1) : "";
+        }
+    }
 
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(sql);
-            System.out.println(" Table created Successfully");
-        } catch (SQLException e) {
-            System.err.println("Error creating table: " + e.getMessage());
-            throw new RuntimeException("Failed to create database table", e);
+    // Run a write on the writer thread and wait for it to finish
+    private <T> T write(SqlWork<T> work) throws SQLException {
+        return onWriter((connection, statements) -> {
+            try {
+                return work.run(connection, statements);
+            } finally {
+                writeCount.incrementAndGet();
+            }
+        });
+    }
+
+    // Run a read on a pooled read-only connection, or on the writer thread if there is no pool
+    private <T> T read(SqlWork<T> work) throws SQLException {
+        ReadConnectionPool.Lease pinned = snapshotLease.get();
+        if (pinned != null) {
+            return work.run(pinned.connection, pinned.statements);
+        }
+        if (readers == null) {
+            return onWriter(work);
+        }
+        ReadConnectionPool.Lease lease = readers.acquire();
+        try {
+            return work.run(lease.connection, lease.statements);
+        } finally {
+            readers.release(lease);
+        }
+    }
+
+    private <T> T onWriter(SqlWork<T> work) throws SQLException {
+        if (Thread.currentThread() == writerThread) {
+            return work.run(connection, statements);
+        }
+        Future<T> result = writer.submit(() -> work.run(connection, statements));
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            // The work still runs; only this caller stops waiting for it
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for the database writer", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) throw sqlException;
+            if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+            if (cause instanceof Error error) throw error;
+            throw new SQLException(cause);
         }
     }
 
@@ -64,18 +200,20 @@ public class SQLiteStudentRepository implements StudentRepository {
             VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
             """;
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, student.getStudentId());
-            pstmt.setString(2, student.getFullName());
-            pstmt.setString(3, student.getProgramme());
-            pstmt.setInt(4, student.getLevel());
-            pstmt.setDouble(5, student.getGpa());
-            pstmt.setString(6, student.getEmail());
-            pstmt.setString(7, student.getPhoneNumber());
-            pstmt.setString(8, student.getDateAdded().toString());
-            pstmt.setString(9, student.getStatus());
-
-            pstmt.executeUpdate();
+        try {
+            write((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql);
+                pstmt.setString(1, student.getStudentId());
+                pstmt.setString(2, student.getFullName());
+                pstmt.setString(3, student.getProgramme());
+                pstmt.setInt(4, student.getLevel());
+                pstmt.setDouble(5, student.getGpa());
+                pstmt.setString(6, student.getEmail());
+                pstmt.setString(7, student.getPhoneNumber());
+                pstmt.setLong(8, StudentRowMapper.toEpochMillis(student.getDateAdded()));
+                pstmt.setString(9, student.getStatus());
+                return pstmt.executeUpdate();
+            });
             System.out.println(" Student added successfully");
 
         } catch (SQLException e) {
@@ -85,27 +223,156 @@ public class SQLiteStudentRepository implements StudentRepository {
     }
 
     @Override
-    public List<Student> getAllStudents() {
-        List<Student> students = new ArrayList<>();
-        String sql = "SELECT * FROM students ORDER BY full_name ASC";
+    public void addStudents(List<Student> students) {
+        if (students == null || students.isEmpty()) return;
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        String sql = """
+            INSERT INTO students (student_id, full_name, programme, level, gpa,
+                                 email, phone_number, date_added, status)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+        try {
+            write((connection, statements) -> executeInsertBatch(connection, sql, students));
+            System.out.println(" " + students.size() + " students added successfully");
+
+        } catch (SQLException e) {
+            System.err.println("Error adding students: " + e.getMessage());
+            throw new RuntimeException("Failed to add students", e);
+        }
+    }
 
-            while (rs.next()) {
-                Student student = new Student(
-                        rs.getString("student_id"),
-                        rs.getString("full_name"),
-                        rs.getString("programme"),
-                        rs.getInt("level"),
-                        rs.getDouble("gpa"),
-                        rs.getString("email"),
-                        rs.getString("phone_number"),
-                        LocalDateTime.parse(rs.getString("date_added")),
-                        rs.getString("status")
-                );
-                students.add(student);
+    @Override
+    public int upsertStudents(List<Student> students) {
+        if (students == null || students.isEmpty()) return 0;
+
+        // Existing rows keep their date_added, like updateStudent(). The WHERE
+        // leaves identical rows untouched, so a registry refresh only rewrites
+        // (and re-indexes) the rows that actually changed.
+        String sql = """
+            INSERT INTO students (student_id, full_name, programme, level, gpa,
+                                 email, phone_number, date_added, status)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (student_id) DO UPDATE SET
+                full_name = excluded.full_name, programme = excluded.programme,
+                level = excluded.level, gpa = excluded.gpa, email = excluded.email,
+                phone_number = excluded.phone_number, status = excluded.status
+            WHERE (full_name, programme, level, gpa, email, phone_number, status)
+                IS NOT (excluded.full_name, excluded.programme, excluded.level, excluded.gpa,
+                        excluded.email, excluded.phone_number, excluded.status)
+            """;
+
+        try {
+            int written = write((connection, statements) -> executeInsertBatch(connection, sql, students));
+            System.out.println(" " + written + " students added or updated");
+            return written;
+
+        } catch (SQLException e) {
+            System.err.println("Error upserting students: " + e.getMessage());
+            throw new RuntimeException("Failed to add or update students", e);
+        }
+    }
+
+    // Insert students, or overwrite every column of existing ones - date_added
+    // included. Used to replay backup deltas, which must reproduce rows exactly.
+    public int replaceStudents(List<Student> students) {
+        if (students == null || students.isEmpty()) return 0;
+
+        String sql = """
+            INSERT INTO students (student_id, full_name, programme, level, gpa,
+                                 email, phone_number, date_added, status)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (student_id) DO UPDATE SET
+                full_name = excluded.full_name, programme = excluded.programme,
+                level = excluded.level, gpa = excluded.gpa, email = excluded.email,
+                phone_number = excluded.phone_number, date_added = excluded.date_added,
+                status = excluded.status
+            """;
+
+        try {
+            return write((connection, statements) -> executeInsertBatch(connection, sql, students));
+
+        } catch (SQLException e) {
+            System.err.println("Error replacing students: " + e.getMessage());
+            throw new RuntimeException("Failed to replace students", e);
+        }
+    }
+
+    // Run an INSERT with the nine student columns for every student, in one
+    // transaction, flushed to SQLite every batchSize rows. Returns the rows changed.
+    private int executeInsertBatch(Connection connection, String sql, List<Student> students) throws SQLException {
+        boolean previousAutoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            int changed = 0;
+            int pending = 0;
+            for (Student student : students) {
+                pstmt.setString(1, student.getStudentId());
+                pstmt.setString(2, student.getFullName());
+                pstmt.setString(3, student.getProgramme());
+                pstmt.setInt(4, student.getLevel());
+                pstmt.setDouble(5, student.getGpa());
+                pstmt.setString(6, student.getEmail());
+                pstmt.setString(7, student.getPhoneNumber());
+                pstmt.setLong(8, StudentRowMapper.toEpochMillis(student.getDateAdded()));
+                pstmt.setString(9, student.getStatus());
+                pstmt.addBatch();
+
+                if (++pending == batchSize) {
+                    changed += sum(pstmt.executeBatch());
+                    pending = 0;
+                }
             }
+            if (pending > 0) {
+                changed += sum(pstmt.executeBatch());
+            }
+
+            connection.commit();
+            return changed;
+
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(previousAutoCommit);
+        }
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    // Number of rows per executeBatch() call in addStudents() and upsertStudents()
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public List<Student> getAllStudents() {
+        List<Student> students = new ArrayList<>();
+        String sql = "SELECT " + StudentRowMapper.COLUMNS + " FROM students ORDER BY full_name ASC";
+
+        try {
+            read((connection, statements) -> {
+                try (ResultSet rs = statements.prepare(sql).executeQuery()) {
+                    while (rs.next()) {
+                        students.add(StudentRowMapper.map(rs));
+                    }
+                }
+                return null;
+            });
 
         } catch (SQLException e) {
             System.err.println("Error getting students: " + e.getMessage());
@@ -116,33 +383,613 @@ public class SQLiteStudentRepository implements StudentRepository {
     }
 
     @Override
-    public Student findStudentById(String studentId) {
-        String sql = "SELECT * FROM students WHERE student_id = ?";
+    public List<Student> findStudents(StudentQuery query) {
+        List<Student> students = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT " + StudentRowMapper.COLUMNS + " FROM students");
+        appendWhere(sql, query, params);
+        appendOrderBy(sql, query);
+        if (query.getLimit() > 0) {
+            sql.append(" LIMIT ?");
+            params.add(query.getLimit());
+        }
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, studentId);
+        try {
+            read((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql.toString());
+                bindParams(pstmt, params);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        students.add(StudentRowMapper.map(rs));
+                    }
+                }
+                return null;
+            });
+
+        } catch (SQLException e) {
+            System.err.println("Error finding students: " + e.getMessage());
+            throw new RuntimeException("Failed to find students", e);
+        }
+
+        return students;
+    }
+
+    @Override
+    public StudentPage findStudentsPage(StudentQuery query, StudentPage.Cursor after, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT " + StudentRowMapper.COLUMNS + " FROM students");
+        boolean filtered = appendWhere(sql, query, params);
+        if (after != null) {
+            // Seek past the last row seen using the (full_name, student_id) index,
+            // so every page costs the same however deep into the list it is.
+            // (A status filter adds no parameter, so ask appendWhere whether it wrote a WHERE.)
+            sql.append(filtered ? " AND " : " WHERE ");
+            sql.append("(full_name, student_id) > (?, ?)");
+            params.add(after.getFullName());
+            params.add(after.getStudentId());
+        }
+        // One extra row tells us whether another page exists
+        sql.append(" ORDER BY full_name ASC, student_id ASC LIMIT ?");
+        params.add(pageSize + 1);
+
+        List<Student> students = new ArrayList<>(pageSize + 1);
+        try {
+            read((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql.toString());
+                bindParams(pstmt, params);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        students.add(StudentRowMapper.map(rs));
+                    }
+                }
+                return null;
+            });
+
+        } catch (SQLException e) {
+            System.err.println("Error getting student page: " + e.getMessage());
+            throw new RuntimeException("Failed to get student page", e);
+        }
+
+        boolean hasMore = students.size() > pageSize;
+        if (hasMore) {
+            students.remove(students.size() - 1);
+        }
+        return new StudentPage(students, hasMore);
+    }
+
+    @Override
+    public Stream<Student> streamStudents(StudentQuery query) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT " + StudentRowMapper.COLUMNS + " FROM students");
+        appendWhere(sql, query, params);
+        appendOrderBy(sql, query);
+        if (query.getLimit() > 0) {
+            sql.append(" LIMIT ?");
+            params.add(query.getLimit());
+        }
+
+        ReadConnectionPool pool = readers;
+        ReadConnectionPool.Lease pinned = snapshotLease.get();
+        if (pool == null && inMemory) {
+            // Only the writer connection can see this database, and it must stay on
+            // the writer thread - read the rows there and stream them from memory
+            return findStudents(query).stream();
+        }
+
+        // The stream keeps its read connection until it is closed: a pooled one, or
+        // without a pool a read-only connection of its own, so the cursor never
+        // touches the writer connection from this thread. (Under a rollback journal
+        // that connection's read lock makes writers wait while the stream is open.)
+        ReadConnectionPool.Lease lease = null;
+        Connection own = null;
+        PreparedStatement pstmt = null;
+        try {
+            Connection source;
+            if (pinned != null) {
+                // Inside readSnapshot(): the snapshot owns the connection, the stream only borrows it
+                source = pinned.connection;
+            } else if (pool != null) {
+                lease = pool.acquire();
+                source = lease.connection;
+            } else {
+                own = openStreamConnection();
+                source = own;
+            }
+            pstmt = source.prepareStatement(sql.toString());
+            pstmt.setFetchSize(STREAM_FETCH_SIZE);
+            bindParams(pstmt, params);
             ResultSet rs = pstmt.executeQuery();
 
-            if (rs.next()) {
-                return new Student(
-                        rs.getString("student_id"),
-                        rs.getString("full_name"),
-                        rs.getString("programme"),
-                        rs.getInt("level"),
-                        rs.getDouble("gpa"),
-                        rs.getString("email"),
-                        rs.getString("phone_number"),
-                        LocalDateTime.parse(rs.getString("date_added")),
-                        rs.getString("status")
-                );
+            // Each tryAdvance() steps the cursor one row; nothing is buffered.
+            // The statement is not cached: it stays busy until the stream is closed
+            Spliterator<Student> rows = new Spliterators.AbstractSpliterator<>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super Student> action) {
+                    try {
+                        if (!rs.next()) return false;
+                        action.accept(StudentRowMapper.map(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new RuntimeException("Failed to read student row", e);
+                    }
+                }
+            };
+
+            PreparedStatement statement = pstmt;
+            ReadConnectionPool.Lease borrowed = lease;
+            Connection opened = own;
+            return StreamSupport.stream(rows, false).onClose(() -> {
+                try {
+                    rs.close();
+                    statement.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing student stream: " + e.getMessage());
+                } finally {
+                    if (borrowed != null) {
+                        pool.release(borrowed);
+                    }
+                    closeQuietly(opened);
+                }
+            });
+
+        } catch (SQLException e) {
+            closeQuietly(pstmt);
+            if (lease != null) {
+                pool.release(lease);
+            }
+            closeQuietly(own);
+            System.err.println("Error streaming students: " + e.getMessage());
+            throw new RuntimeException("Failed to stream students", e);
+        }
+    }
+
+    @Override
+    public void forEachStudent(StudentQuery query, Consumer<Student> action) {
+        try (Stream<Student> students = streamStudents(query)) {
+            students.forEach(action);
+        }
+    }
+
+    @Override
+    public long[] countGpaBands(StudentQuery filter) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("""
+                SELECT CASE
+                           WHEN gpa < 1.0 THEN 0
+                           WHEN gpa < 2.0 THEN 1
+                           WHEN gpa < 3.0 THEN 2
+                           ELSE 3
+                       END AS band,
+                       COUNT(*)
+                FROM students""");
+        appendWhere(sql, filter, params);
+        sql.append(" GROUP BY band");
+
+        long[] bands = new long[4];
+        try {
+            read((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql.toString());
+                bindParams(pstmt, params);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        bands[rs.getInt(1)] = rs.getLong(2);
+                    }
+                }
+                return null;
+            });
+
+        } catch (SQLException e) {
+            System.err.println("Error counting GPA bands: " + e.getMessage());
+            throw new RuntimeException("Failed to count GPA bands", e);
+        }
+
+        return bands;
+    }
+
+    @Override
+    public List<StudentAggregate> aggregateByProgramme(StudentQuery filter) {
+        return aggregateBy("programme", filter);
+    }
+
+    @Override
+    public List<StudentAggregate> aggregateByLevel(StudentQuery filter) {
+        return aggregateBy("level", filter);
+    }
+
+    @Override
+    public List<StudentAggregate> aggregateByStatus(StudentQuery filter) {
+        return aggregateBy("status", filter);
+    }
+
+    // GPA statistics grouped by one column. Programme, level and status filters are
+    // answered from student_aggregates, which triggers keep per (programme, level,
+    // status) group - the cost is the number of groups, not the number of students.
+    // A search term needs the students themselves.
+    private List<StudentAggregate> aggregateBy(String column, StudentQuery filter) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(column);
+        if (filter.getSearchTerm() == null) {
+            sql.append(", SUM(student_count), SUM(sum_gpa), SUM(sum_squares_gpa), MIN(min_gpa), MAX(max_gpa)"
+                    + " FROM student_aggregates");
+        } else {
+            sql.append(", COUNT(*), SUM(gpa), SUM(gpa * gpa), MIN(gpa), MAX(gpa) FROM students");
+        }
+        appendWhere(sql, filter, params);
+        sql.append(" GROUP BY ").append(column).append(" ORDER BY ").append(column);
+
+        List<StudentAggregate> aggregates = new ArrayList<>();
+        try {
+            read((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql.toString());
+                bindParams(pstmt, params);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        aggregates.add(new StudentAggregate(
+                                rs.getString(1), rs.getLong(2), rs.getDouble(3),
+                                rs.getDouble(4), rs.getDouble(5), rs.getDouble(6)));
+                    }
+                }
+                return null;
+            });
+
+        } catch (SQLException e) {
+            System.err.println("Error aggregating by " + column + ": " + e.getMessage());
+            throw new RuntimeException("Failed to aggregate by " + column, e);
+        }
+
+        return aggregates;
+    }
+
+    private Connection openStreamConnection() throws SQLException {
+        Connection own = DriverManager.getConnection(jdbcUrl);
+        try {
+            profile.applyReadOnly(own);
+            return own;
+        } catch (SQLException e) {
+            own.close();
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing stream connection: " + e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Statement stmt) {
+        if (stmt == null) return;
+        try {
+            stmt.close();
+        } catch (SQLException ignored) {
+            // Already failing - keep the original error
+        }
+    }
+
+    @Override
+    public int countStudents(StudentQuery query) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM students");
+        appendWhere(sql, query, params);
+
+        try {
+            return read((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql.toString());
+                bindParams(pstmt, params);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            });
+
+        } catch (SQLException e) {
+            System.err.println("Error counting students: " + e.getMessage());
+            throw new RuntimeException("Failed to count students", e);
+        }
+    }
+
+    @Override
+    public List<Student> searchStudents(String term, int limit) {
+        List<Student> students = new ArrayList<>();
+        if (term == null || term.trim().isEmpty() || limit <= 0) {
+            return students;
+        }
+        term = term.trim();
+        String prefix = escapeLike(term) + "%";
+
+        String sql;
+        List<Object> params = new ArrayList<>();
+        if (isIndexableTerm(term)) {
+            // Rows whose ID or name starts with the term come first, then by bm25 relevance
+            sql = "SELECT " + StudentRowMapper.columns("s")
+                    + " FROM students_fts f JOIN students s ON s.rowid = f.rowid "
+                    + "WHERE students_fts MATCH ? "
+                    + "ORDER BY (s.student_id LIKE ? ESCAPE '\\' OR s.full_name LIKE ? ESCAPE '\\') DESC, "
+                    + "f.rank, s.full_name "
+                    + "LIMIT ?";
+            params.add(ftsPhrase(term));
+        } else {
+            // One or two characters: prefix match only, which is what a typeahead needs
+            sql = "SELECT " + StudentRowMapper.COLUMNS + " FROM students "
+                    + "WHERE student_id LIKE ? ESCAPE '\\' OR full_name LIKE ? ESCAPE '\\' OR email LIKE ? ESCAPE '\\' "
+                    + "ORDER BY full_name, student_id "
+                    + "LIMIT ?";
+            params.add(prefix);
+        }
+        params.add(prefix);
+        params.add(prefix);
+        params.add(limit);
+
+        try {
+            read((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql);
+                bindParams(pstmt, params);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        students.add(StudentRowMapper.map(rs));
+                    }
+                }
+                return null;
+            });
+
+        } catch (SQLException e) {
+            System.err.println("Error searching students: " + e.getMessage());
+            throw new RuntimeException("Failed to search students", e);
+        }
+
+        return students;
+    }
+
+    @Override
+    public List<StudentChange> getChangesSince(long afterSeq, int limit) {
+        List<StudentChange> changes = new ArrayList<>();
+        if (limit <= 0) {
+            return changes;
+        }
+
+        // Reads the seq primary key from afterSeq onwards, however long the journal gets
+        String sql = "SELECT c.seq, c.student_id, c.change_type, c.changed_at, s.student_id IS NOT NULL, "
+                + StudentRowMapper.columns("s")
+                + " FROM student_changes c LEFT JOIN students s ON s.student_id = c.student_id"
+                + " WHERE c.seq > ? ORDER BY c.seq LIMIT ?";
+
+        try {
+            read((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql);
+                pstmt.setLong(1, afterSeq);
+                pstmt.setInt(2, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        changes.add(new StudentChange(
+                                rs.getLong(1),
+                                rs.getString(2),
+                                StudentChange.Type.valueOf(rs.getString(3)),
+                                StudentRowMapper.fromEpochMillis(rs.getLong(4)),
+                                rs.getBoolean(5) ? StudentRowMapper.map(rs, 5) : null));
+                    }
+                }
+                return null;
+            });
+
+        } catch (SQLException e) {
+            System.err.println("Error reading student changes: " + e.getMessage());
+            throw new RuntimeException("Failed to read student changes", e);
+        }
+
+        return changes;
+    }
+
+    @Override
+    public long getLatestChangeSeq() {
+        try {
+            return read((connection, statements) -> {
+                try (ResultSet rs = statements.prepare("SELECT MAX(seq) FROM student_changes").executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : 0L;
+                }
+            });
+
+        } catch (SQLException e) {
+            System.err.println("Error reading change sequence: " + e.getMessage());
+            throw new RuntimeException("Failed to read change sequence", e);
+        }
+    }
+
+    // Build the WHERE clause for a query; values go into params, never into the SQL text.
+    // Returns true if a WHERE clause was written.
+    private boolean appendWhere(StringBuilder sql, StudentQuery query, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+
+        if (query.getProgramme() != null) {
+            conditions.add("programme = ?");
+            params.add(query.getProgramme());
+        }
+        if (query.getLevel() != null) {
+            conditions.add("level = ?");
+            params.add(query.getLevel());
+        }
+        if (query.getStatus() != null) {
+            // The two valid statuses are written as literals so SQLite can use
+            // the partial index on Active rows; anything else is bound
+            if ("Active".equals(query.getStatus()) || "Inactive".equals(query.getStatus())) {
+                conditions.add("status = '" + query.getStatus() + "'");
+            } else {
+                conditions.add("status = ?");
+                params.add(query.getStatus());
+            }
+        }
+        if (query.getExcludedStatus() != null) {
+            conditions.add("status <> ?");
+            params.add(query.getExcludedStatus());
+        }
+        if (query.getSearchTerm() != null) {
+            String term = query.getSearchTerm();
+            if (isIndexableTerm(term)) {
+                // Substring match through the trigram index (ID, name and email) instead of scanning every row
+                conditions.add("rowid IN (SELECT rowid FROM students_fts WHERE students_fts MATCH ?)");
+                params.add(ftsPhrase(term));
+            } else {
+                // Too short for trigrams - LIKE is case-insensitive for ASCII in SQLite
+                String pattern = "%" + escapeLike(term) + "%";
+                conditions.add("(student_id LIKE ? ESCAPE '\\' OR full_name LIKE ? ESCAPE '\\' OR email LIKE ? ESCAPE '\\')");
+                params.add(pattern);
+                params.add(pattern);
+                params.add(pattern);
+            }
+        }
+
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        return !conditions.isEmpty();
+    }
+
+    private void appendOrderBy(StringBuilder sql, StudentQuery query) {
+        String direction = query.isAscending() ? "ASC" : "DESC";
+        if (query.getSortField() == StudentQuery.SortField.GPA) {
+            sql.append(" ORDER BY gpa ").append(direction).append(", full_name ASC");
+        } else {
+            sql.append(" ORDER BY full_name ").append(direction).append(", student_id ").append(direction);
+        }
+    }
+
+    private void bindParams(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    // Escape LIKE wildcards so the search term is matched literally
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // The trigram tokenizer can only look up terms of at least 3 characters
+    private static boolean isIndexableTerm(String term) {
+        return term.codePointCount(0, term.length()) >= FTS_MIN_TERM_LENGTH;
+    }
+
+    // Quote the term as a single FTS5 phrase so operators and punctuation are matched literally
+    private static String ftsPhrase(String term) {
+        return "\"" + term.replace("\"", "\"\"") + "\"";
+    }
+
+    // Remove the journal entries after seq, e.g. those written while replaying a
+    // backup onto a copy (not part of StudentRepository, like replaceStudents)
+    public int discardChangesAfter(long seq) {
+        try {
+            return write((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare("DELETE FROM student_changes WHERE seq > ?");
+                pstmt.setLong(1, seq);
+                return pstmt.executeUpdate();
+            });
+
+        } catch (SQLException e) {
+            System.err.println("Error discarding student changes: " + e.getMessage());
+            throw new RuntimeException("Failed to discard student changes", e);
+        }
+    }
+
+    @Override
+    public int deleteChangesBefore(long seq) {
+        try {
+            int removed = write((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare("DELETE FROM student_changes WHERE seq < ?");
+                pstmt.setLong(1, seq);
+                return pstmt.executeUpdate();
+            });
+            if (removed > 0) {
+                System.out.println(" " + removed + " old change journal entries removed");
             }
+            return removed;
+
+        } catch (SQLException e) {
+            System.err.println("Error pruning student changes: " + e.getMessage());
+            throw new RuntimeException("Failed to prune student changes", e);
+        }
+    }
+
+    @Override
+    public Student findStudentById(String studentId) {
+        String sql = "SELECT " + StudentRowMapper.COLUMNS + " FROM students WHERE student_id = ?";
+
+        try {
+            return read((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql);
+                pstmt.setString(1, studentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return StudentRowMapper.map(rs);
+                    }
+                }
+                return null; // Not found
+            });
 
         } catch (SQLException e) {
             System.err.println("Error finding student: " + e.getMessage());
             throw new RuntimeException("Failed to find student", e);
         }
+    }
+
+    @Override
+    public boolean existsById(String studentId) {
+        String sql = "SELECT 1 FROM students WHERE student_id = ?";
+
+        try {
+            return read((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql);
+                pstmt.setString(1, studentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next();
+                }
+            });
 
-        return null; // Not found
+        } catch (SQLException e) {
+            System.err.println("Error checking student ID: " + e.getMessage());
+            throw new RuntimeException("Failed to check student ID", e);
+        }
+    }
+
+    @Override
+    public Set<String> existingIds(Collection<String> studentIds) {
+        Set<String> existing = new HashSet<>();
+        if (studentIds == null || studentIds.isEmpty()) {
+            return existing;
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(ID_LOOKUP_BATCH_SIZE, "?"));
+        String sql = "SELECT student_id FROM students WHERE student_id IN (" + placeholders + ")";
+
+        try {
+            read((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql);
+                Iterator<String> ids = studentIds.iterator();
+                while (ids.hasNext()) {
+                    for (int i = 1; i <= ID_LOOKUP_BATCH_SIZE; i++) {
+                        // NULL never matches, so padding the last slice is harmless
+                        pstmt.setString(i, ids.hasNext() ? ids.next() : null);
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            existing.add(rs.getString(1));
+                        }
+                    }
+                }
+                return null;
+            });
+
+        } catch (SQLException e) {
+            System.err.println("Error checking student IDs: " + e.getMessage());
+            throw new RuntimeException("Failed to check student IDs", e);
+        }
+
+        return existing;
     }
 
     @Override
@@ -154,17 +1001,19 @@ public class SQLiteStudentRepository implements StudentRepository {
             WHERE student_id = ?
             """;
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, student.getFullName());
-            pstmt.setString(2, student.getProgramme());
-            pstmt.setInt(3, student.getLevel());
-            pstmt.setDouble(4, student.getGpa());
-            pstmt.setString(5, student.getEmail());
-            pstmt.setString(6, student.getPhoneNumber());
-            pstmt.setString(7, student.getStatus());
-            pstmt.setString(8, student.getStudentId());
-
-            pstmt.executeUpdate();
+        try {
+            write((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql);
+                pstmt.setString(1, student.getFullName());
+                pstmt.setString(2, student.getProgramme());
+                pstmt.setInt(3, student.getLevel());
+                pstmt.setDouble(4, student.getGpa());
+                pstmt.setString(5, student.getEmail());
+                pstmt.setString(6, student.getPhoneNumber());
+                pstmt.setString(7, student.getStatus());
+                pstmt.setString(8, student.getStudentId());
+                return pstmt.executeUpdate();
+            });
             System.out.println(" Student updated successfully");
 
         } catch (SQLException e) {
@@ -173,14 +1022,130 @@ public class SQLiteStudentRepository implements StudentRepository {
         }
     }
 
+    @Override
+    public int hardDeleteStudents(Collection<String> studentIds) {
+        if (studentIds == null || studentIds.isEmpty()) return 0;
+
+        // Same fixed-size, NULL-padded IN (...) list as setStatus()
+        String placeholders = String.join(", ", Collections.nCopies(ID_LOOKUP_BATCH_SIZE, "?"));
+        String sql = "DELETE FROM students WHERE student_id IN (" + placeholders + ")";
+
+        try {
+            int removed = write((connection, statements) -> {
+                boolean previousAutoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+
+                try {
+                    PreparedStatement pstmt = statements.prepare(sql);
+                    int deleted = 0;
+                    Iterator<String> ids = studentIds.iterator();
+                    while (ids.hasNext()) {
+                        for (int i = 1; i <= ID_LOOKUP_BATCH_SIZE; i++) {
+                            pstmt.setString(i, ids.hasNext() ? ids.next() : null);
+                        }
+                        deleted += pstmt.executeUpdate();
+                    }
+
+                    connection.commit();
+                    return deleted;
+
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(previousAutoCommit);
+                }
+            });
+            System.out.println(" " + removed + " students removed");
+            return removed;
+
+        } catch (SQLException e) {
+            System.err.println("Error removing students: " + e.getMessage());
+            throw new RuntimeException("Failed to remove students", e);
+        }
+    }
+
+    @Override
+    public int setStatus(Collection<String> studentIds, String status) {
+        if (studentIds == null || studentIds.isEmpty()) return 0;
+
+        // Same fixed-size, NULL-padded IN (...) list as existingIds(); rows that
+        // already have the status are left alone
+        String placeholders = String.join(", ", Collections.nCopies(ID_LOOKUP_BATCH_SIZE, "?"));
+        String sql = "UPDATE students SET status = ? WHERE status <> ? AND student_id IN (" + placeholders + ")";
+
+        try {
+            int changed = write((connection, statements) -> {
+                boolean previousAutoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+
+                try {
+                    PreparedStatement pstmt = statements.prepare(sql);
+                    int updated = 0;
+                    Iterator<String> ids = studentIds.iterator();
+                    while (ids.hasNext()) {
+                        pstmt.setString(1, status);
+                        pstmt.setString(2, status);
+                        for (int i = 3; i < ID_LOOKUP_BATCH_SIZE + 3; i++) {
+                            pstmt.setString(i, ids.hasNext() ? ids.next() : null);
+                        }
+                        updated += pstmt.executeUpdate();
+                    }
+
+                    connection.commit();
+                    return updated;
+
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(previousAutoCommit);
+                }
+            });
+            System.out.println(" " + changed + " students marked as " + status);
+            return changed;
+
+        } catch (SQLException e) {
+            System.err.println("Error setting student status: " + e.getMessage());
+            throw new RuntimeException("Failed to set student status", e);
+        }
+    }
+
+    @Override
+    public int setStatusWhere(StudentQuery filter, String status) {
+        List<Object> params = new ArrayList<>();
+        params.add(status);
+        StringBuilder sql = new StringBuilder("UPDATE students SET status = ?");
+        // Rows that already have the status are left alone
+        appendWhere(sql, filter.copy().withStatusNot(status), params);
+
+        // A single UPDATE statement is its own transaction
+        try {
+            int changed = write((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql.toString());
+                bindParams(pstmt, params);
+                return pstmt.executeUpdate();
+            });
+            System.out.println(" " + changed + " students marked as " + status);
+            return changed;
+
+        } catch (SQLException e) {
+            System.err.println("Error setting student status: " + e.getMessage());
+            throw new RuntimeException("Failed to set student status", e);
+        }
+    }
+
     @Override
     public void deleteStudent(String studentId) {
         // Soft delete - mark as "Inactive" instead of deleting
         String sql = "UPDATE students SET status = 'Inactive' WHERE student_id = ?";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, studentId);
-            pstmt.executeUpdate();
+        try {
+            write((connection, statements) -> {
+                PreparedStatement pstmt = statements.prepare(sql);
+                pstmt.setString(1, studentId);
+                return pstmt.executeUpdate();
+            });
             System.out.println(" Student marked as inactive");
 
         } catch (SQLException e) {
@@ -188,14 +1153,237 @@ public class SQLiteStudentRepository implements StudentRepository {
             throw new RuntimeException("Failed to delete student", e);
         }
     }
+
+    // With a pool: one pooled connection is pinned to this thread for the duration,
+    // inside one read transaction, so every read sees the same WAL snapshot.
+    // Without a pool: the reads run on the writer thread, where no write can
+    // come between them.
+    @Override
+    public <T> T readSnapshot(Supplier<T> reads) {
+        if (snapshotLease.get() != null || Thread.currentThread() == writerThread) {
+            return reads.get(); // Already inside one
+        }
+        try {
+            if (readers == null) {
+                return onWriter((connection, statements) -> reads.get());
+            }
+
+            ReadConnectionPool.Lease lease = readers.acquire();
+            snapshotLease.set(lease);
+            try {
+                lease.connection.setAutoCommit(false);
+                try {
+                    return reads.get();
+                } finally {
+                    // Nothing was written - ending the transaction just releases the snapshot
+                    lease.connection.rollback();
+                    lease.connection.setAutoCommit(true);
+                }
+            } finally {
+                snapshotLease.remove();
+                readers.release(lease);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error reading snapshot: " + e.getMessage());
+            throw new RuntimeException("Failed to read snapshot", e);
+        }
+    }
+
+    @Override
+    public long getChangeToken() {
+        try {
+            // The pool's monitor connection sees commits from our writer as well as
+            // from other processes; without a pool, ask the writer connection itself
+            long dataVersion = readers != null ? readers.dataVersion() : onWriter((connection, statements) -> {
+                try (ResultSet rs = statements.prepare("PRAGMA data_version").executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : 0L;
+                }
+            });
+            return (dataVersion << 32) | (writeCount.get() & 0xFFFFFFFFL);
+
+        } catch (SQLException e) {
+            System.err.println("Error reading data version: " + e.getMessage());
+            throw new RuntimeException("Failed to read data version", e);
+        }
+    }
+
+    @Override
+    public void backupTo(Path target, BackupListener listener) {
+        if (Files.exists(target)) {
+            throw new IllegalArgumentException("Backup file already exists: " + target);
+        }
+
+        if (!listener.progress(0.0)) {
+            throw new RuntimeException("Backup cancelled");
+        }
+
+        boolean[] cancelled = new boolean[1];
+        try {
+            // VACUUM INTO reads inside one transaction, so the copy is consistent; on a
+            // pooled reader under WAL the writer carries on meanwhile. The copy is
+            // rebuilt from scratch, which also leaves out free pages.
+            read((connection, statements) -> {
+                long expectedBytes = usedBytes(connection);
+                ProgressHandler.setHandler(connection, BACKUP_PROGRESS_STEPS, new ProgressHandler() {
+                    @Override
+                    protected int progress() {
+                        // The copy is written as it goes, so its size tracks progress
+                        double done = expectedBytes > 0 ? Math.min(0.99, fileSize(target) / (double) expectedBytes) : 0;
+                        cancelled[0] = !listener.progress(done);
+                        return cancelled[0] ? 1 : 0; // non-zero interrupts the VACUUM
+                    }
+                });
+                // query_only also refuses VACUUM INTO, although only the new file is written
+                try (Statement stmt = connection.createStatement();
+                     PreparedStatement pstmt = connection.prepareStatement("VACUUM INTO ?")) {
+                    stmt.execute("PRAGMA query_only = OFF");
+                    try {
+                        pstmt.setString(1, target.toString());
+                        pstmt.execute();
+                    } finally {
+                        stmt.execute("PRAGMA query_only = ON");
+                    }
+                } finally {
+                    ProgressHandler.clearHandler(connection);
+                }
+                return null;
+            });
+            listener.progress(1.0);
+            System.out.println(" Database backed up to " + target);
+
+        } catch (SQLException e) {
+            try {
+                Files.deleteIfExists(target);
+            } catch (IOException ignored) {
+                // Keep the original error
+            }
+            if (cancelled[0]) {
+                throw new RuntimeException("Backup cancelled", e);
+            }
+            System.err.println("Error backing up database: " + e.getMessage());
+            throw new RuntimeException("Failed to back up database", e);
+        }
+    }
+
+    @Override
+    public void restoreFrom(Path databaseFile) {
+        if (!Files.isRegularFile(databaseFile)) {
+            throw new IllegalArgumentException("Backup file not found: " + databaseFile);
+        }
+
+        try {
+            write((connection, statements) -> {
+                // The backup API copies the file page by page into the open database,
+                // so the pooled readers simply see the restored data on their next query
+                long latestSeq = latestChangeSeq(connection);
+                int rc = connection.unwrap(SQLiteConnection.class).getDatabase()
+                        .restore("main", databaseFile.toString(), null);
+                if (rc != 0) {
+                    throw new SQLException("Restore failed with SQLite error code " + rc);
+                }
+
+                // An older backup may predate later migrations
+                new SchemaMigrator(connection).migrate();
+                // The restored journal ends earlier; carry on numbering after the
+                // newest sequence number already handed out, so none is reused
+                try (PreparedStatement update = connection.prepareStatement(
+                        "UPDATE sqlite_sequence SET seq = MAX(seq, ?) WHERE name = 'student_changes'");
+                     PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO sqlite_sequence (name, seq) VALUES ('student_changes', ?)")) {
+                    update.setLong(1, latestSeq);
+                    if (update.executeUpdate() == 0 && latestSeq > 0) {
+                        insert.setLong(1, latestSeq);
+                        insert.executeUpdate();
+                    }
+                }
+                // The full-text index is keyed by rowid, which VACUUM INTO may renumber
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("INSERT INTO students_fts(students_fts) VALUES('rebuild')");
+                }
+                return null;
+            });
+            System.out.println(" Database restored from " + databaseFile);
+
+        } catch (SQLException e) {
+            System.err.println("Error restoring database: " + e.getMessage());
+            throw new RuntimeException("Failed to restore database", e);
+        }
+    }
+
+    // Highest sequence number handed out so far, including removed journal entries
+    private static long latestChangeSeq(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT seq FROM sqlite_sequence WHERE name = 'student_changes'")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // Bytes in use by the database, not counting free pages
+    private static long usedBytes(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            long pageSize = queryLong(stmt, "PRAGMA page_size");
+            long pageCount = queryLong(stmt, "PRAGMA page_count");
+            long freePages = queryLong(stmt, "PRAGMA freelist_count");
+            return (pageCount - freePages) * pageSize;
+        }
+    }
+
+    private static long queryLong(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static long fileSize(Path file) {
+        try {
+            return Files.exists(file) ? Files.size(file) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            // Let queued writes finish before their connection goes away
+            writer.shutdown();
+            if (!writer.awaitTermination(WRITER_SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Database writer still busy, closing anyway");
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (readers != null) {
+            readers.close();
+            readers = null;
+        }
+
+        try {
+            if (connection != null && !connection.isClosed()) {
+                statements.close();
+                connection.close();
+                System.out.println(" Database connection closed");
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing database: " + e.getMessage());
+        }
+    }
+
     // Add this method for test cleanup (hard delete)
     public void hardDeleteStudent(String studentId) {
         String sql = "DELETE FROM students WHERE student_id = ?";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, studentId);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
+        try {
+            write((connection, statements) -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setString(1, studentId);
+                    return pstmt.executeUpdate();
+                }
+            });
+        } catch (RuntimeException | SQLException e) {
             // Ignore errors during test cleanup
         }
     }
@@ -0,0 +1,329 @@
+package com.sms.repository;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Brings the database schema up to date at startup.
+// The schema version is stored in SQLite's PRAGMA user_version. Each
+// migration runs once, in order, inside its own transaction, so an existing
+// data/students.db is upgraded in place and a new one is built from scratch.
+public class SchemaMigrator {
+
+    // One numbered schema change
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final List<String> statements;
+
+        public Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = List.of(statements);
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+        public List<String> getStatements() { return statements; }
+    }
+
+    // All migrations, oldest first. Never edit a released migration - add a new one.
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create students table",
+                    """
+                    CREATE TABLE IF NOT EXISTS students (
+                        student_id TEXT PRIMARY KEY,
+                        full_name TEXT NOT NULL,
+                        programme TEXT NOT NULL,
+                        level INTEGER NOT NULL CHECK (level IN (100, 200, 300, 400, 500, 600, 700)),
+                        gpa REAL NOT NULL CHECK (gpa >= 0.0 AND gpa <= 4.0),
+                        email TEXT NOT NULL,
+                        phone_number TEXT NOT NULL,
+                        date_added TEXT NOT NULL,
+                        status TEXT NOT NULL CHECK (status IN ('Active', 'Inactive'))
+                    )
+                    """),
+
+            new Migration(2, "Add indexes for student list and report queries",
+                    // Programme summary / top performers filtered by programme
+                    "CREATE INDEX IF NOT EXISTS idx_students_status_programme_gpa ON students (status, programme, gpa)",
+                    // At-risk list and GPA distribution
+                    "CREATE INDEX IF NOT EXISTS idx_students_status_gpa ON students (status, gpa)",
+                    // Student list ordered by name (student_id breaks ties)
+                    "CREATE INDEX IF NOT EXISTS idx_students_full_name ON students (full_name, student_id)",
+                    // Reports only look at Active students
+                    "CREATE INDEX IF NOT EXISTS idx_students_active_programme_level_gpa "
+                            + "ON students (programme, level, gpa) WHERE status = 'Active'"),
+
+            new Migration(3, "Add full-text search index on student ID, name and email",
+                    // Trigram tokens give case-insensitive substring matching for terms of 3+ characters.
+                    // External content: the text lives in students, the index maps back by rowid.
+                    """
+                    CREATE VIRTUAL TABLE IF NOT EXISTS students_fts USING fts5(
+                        student_id, full_name, email,
+                        content = 'students', content_rowid = 'rowid', tokenize = 'trigram'
+                    )
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS students_fts_insert AFTER INSERT ON students BEGIN
+                        INSERT INTO students_fts (rowid, student_id, full_name, email)
+                        VALUES (new.rowid, new.student_id, new.full_name, new.email);
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS students_fts_delete AFTER DELETE ON students BEGIN
+                        INSERT INTO students_fts (students_fts, rowid, student_id, full_name, email)
+                        VALUES ('delete', old.rowid, old.student_id, old.full_name, old.email);
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS students_fts_update
+                    AFTER UPDATE OF student_id, full_name, email ON students BEGIN
+                        INSERT INTO students_fts (students_fts, rowid, student_id, full_name, email)
+                        VALUES ('delete', old.rowid, old.student_id, old.full_name, old.email);
+                        INSERT INTO students_fts (rowid, student_id, full_name, email)
+                        VALUES (new.rowid, new.student_id, new.full_name, new.email);
+                    END
+                    """,
+                    // Index the rows that already exist
+                    "INSERT INTO students_fts (students_fts) VALUES ('rebuild')"),
+
+            new Migration(4, "Store date_added as INTEGER epoch milliseconds",
+                    // SQLite cannot change a column type in place, so rebuild the table.
+                    // The ISO text is read as UTC wall-clock time, matching SQLiteStudentRepository.
+                    """
+                    CREATE TABLE students_new (
+                        student_id TEXT PRIMARY KEY,
+                        full_name TEXT NOT NULL,
+                        programme TEXT NOT NULL,
+                        level INTEGER NOT NULL CHECK (level IN (100, 200, 300, 400, 500, 600, 700)),
+                        gpa REAL NOT NULL CHECK (gpa >= 0.0 AND gpa <= 4.0),
+                        email TEXT NOT NULL,
+                        phone_number TEXT NOT NULL,
+                        date_added INTEGER NOT NULL,
+                        status TEXT NOT NULL CHECK (status IN ('Active', 'Inactive'))
+                    )
+                    """,
+                    // rowid is copied so the full-text index still points at the right rows.
+                    // An unparseable date gives NULL and fails the NOT NULL check, rolling back.
+                    """
+                    INSERT INTO students_new (rowid, student_id, full_name, programme, level, gpa,
+                                              email, phone_number, date_added, status)
+                    SELECT rowid, student_id, full_name, programme, level, gpa, email, phone_number,
+                           CAST(ROUND((julianday(date_added) - 2440587.5) * 86400000) AS INTEGER), status
+                    FROM students
+                    """,
+                    // Dropping the old table also drops its indexes and triggers
+                    "DROP TABLE students",
+                    "ALTER TABLE students_new RENAME TO students",
+                    "CREATE INDEX idx_students_status_programme_gpa ON students (status, programme, gpa)",
+                    "CREATE INDEX idx_students_status_gpa ON students (status, gpa)",
+                    "CREATE INDEX idx_students_full_name ON students (full_name, student_id)",
+                    "CREATE INDEX idx_students_active_programme_level_gpa "
+                            + "ON students (programme, level, gpa) WHERE status = 'Active'",
+                    """
+                    CREATE TRIGGER students_fts_insert AFTER INSERT ON students BEGIN
+                        INSERT INTO students_fts (rowid, student_id, full_name, email)
+                        VALUES (new.rowid, new.student_id, new.full_name, new.email);
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER students_fts_delete AFTER DELETE ON students BEGIN
+                        INSERT INTO students_fts (students_fts, rowid, student_id, full_name, email)
+                        VALUES ('delete', old.rowid, old.student_id, old.full_name, old.email);
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER students_fts_update
+                    AFTER UPDATE OF student_id, full_name, email ON students BEGIN
+                        INSERT INTO students_fts (students_fts, rowid, student_id, full_name, email)
+                        VALUES ('delete', old.rowid, old.student_id, old.full_name, old.email);
+                        INSERT INTO students_fts (rowid, student_id, full_name, email)
+                        VALUES (new.rowid, new.student_id, new.full_name, new.email);
+                    END
+                    """),
+
+            new Migration(5, "Add student_changes journal for incremental exports",
+                    // AUTOINCREMENT: a sequence number is never reused, even after old entries are removed.
+                    // changed_at uses the same wall-clock-as-UTC epoch milliseconds as date_added.
+                    """
+                    CREATE TABLE student_changes (
+                        seq INTEGER PRIMARY KEY AUTOINCREMENT,
+                        student_id TEXT NOT NULL,
+                        change_type TEXT NOT NULL CHECK (change_type IN ('INSERT', 'UPDATE', 'DELETE')),
+                        changed_at INTEGER NOT NULL
+                    )
+                    """,
+                    """
+                    CREATE TRIGGER student_changes_insert AFTER INSERT ON students BEGIN
+                        INSERT INTO student_changes (student_id, change_type, changed_at)
+                        VALUES (new.student_id, 'INSERT',
+                                CAST(ROUND((julianday('now', 'localtime') - 2440587.5) * 86400000) AS INTEGER));
+                    END
+                    """,
+                    // Only rows that really changed; a soft delete (to Inactive) is logged as DELETE
+                    """
+                    CREATE TRIGGER student_changes_update AFTER UPDATE ON students
+                    WHEN (old.student_id, old.full_name, old.programme, old.level, old.gpa, old.email,
+                          old.phone_number, old.date_added, old.status)
+                        IS NOT (new.student_id, new.full_name, new.programme, new.level, new.gpa, new.email,
+                                new.phone_number, new.date_added, new.status)
+                    BEGIN
+                        INSERT INTO student_changes (student_id, change_type, changed_at)
+                        VALUES (new.student_id,
+                                CASE WHEN new.status = 'Inactive' AND old.status <> 'Inactive'
+                                     THEN 'DELETE' ELSE 'UPDATE' END,
+                                CAST(ROUND((julianday('now', 'localtime') - 2440587.5) * 86400000) AS INTEGER));
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER student_changes_delete AFTER DELETE ON students BEGIN
+                        INSERT INTO student_changes (student_id, change_type, changed_at)
+                        VALUES (old.student_id, 'DELETE',
+                                CAST(ROUND((julianday('now', 'localtime') - 2440587.5) * 86400000) AS INTEGER));
+                    END
+                    """),
+
+            new Migration(6, "Add student_aggregates kept up to date by triggers",
+                    // One row per (programme, level, status) group; a group's row goes when its last student does
+                    """
+                    CREATE TABLE student_aggregates (
+                        programme TEXT NOT NULL,
+                        level INTEGER NOT NULL,
+                        status TEXT NOT NULL,
+                        student_count INTEGER NOT NULL,
+                        sum_gpa REAL NOT NULL,
+                        sum_squares_gpa REAL NOT NULL,
+                        min_gpa REAL NOT NULL,
+                        max_gpa REAL NOT NULL,
+                        PRIMARY KEY (programme, level, status)
+                    ) WITHOUT ROWID
+                    """,
+                    """
+                    INSERT INTO student_aggregates
+                    SELECT programme, level, status, COUNT(*), SUM(gpa), SUM(gpa * gpa), MIN(gpa), MAX(gpa)
+                    FROM students
+                    GROUP BY programme, level, status
+                    """,
+                    """
+                    CREATE TRIGGER student_aggregates_insert AFTER INSERT ON students BEGIN
+                        INSERT INTO student_aggregates
+                        VALUES (new.programme, new.level, new.status, 1, new.gpa, new.gpa * new.gpa, new.gpa, new.gpa)
+                        ON CONFLICT (programme, level, status) DO UPDATE SET
+                            student_count = student_count + 1,
+                            sum_gpa = sum_gpa + excluded.sum_gpa,
+                            sum_squares_gpa = sum_squares_gpa + excluded.sum_squares_gpa,
+                            min_gpa = MIN(min_gpa, excluded.min_gpa),
+                            max_gpa = MAX(max_gpa, excluded.max_gpa);
+                    END
+                    """,
+                    // Min and max can't be taken back out, so they are looked up again
+                    // only when the student that left held one of them
+                    """
+                    CREATE TRIGGER student_aggregates_delete AFTER DELETE ON students BEGIN
+                        UPDATE student_aggregates SET
+                            student_count = student_count - 1,
+                            sum_gpa = sum_gpa - old.gpa,
+                            sum_squares_gpa = sum_squares_gpa - old.gpa * old.gpa
+                        WHERE programme = old.programme AND level = old.level AND status = old.status;
+                        DELETE FROM student_aggregates
+                        WHERE programme = old.programme AND level = old.level AND status = old.status
+                          AND student_count <= 0;
+                        UPDATE student_aggregates SET
+                            min_gpa = (SELECT MIN(gpa) FROM students
+                                       WHERE programme = old.programme AND level = old.level AND status = old.status),
+                            max_gpa = (SELECT MAX(gpa) FROM students
+                                       WHERE programme = old.programme AND level = old.level AND status = old.status)
+                        WHERE programme = old.programme AND level = old.level AND status = old.status
+                          AND (min_gpa >= old.gpa OR max_gpa <= old.gpa);
+                    END
+                    """,
+                    // The same steps as a delete of the old row followed by an insert of the new one
+                    """
+                    CREATE TRIGGER student_aggregates_update AFTER UPDATE OF programme, level, status, gpa ON students
+                    WHEN (old.programme, old.level, old.status, old.gpa) IS NOT (new.programme, new.level, new.status, new.gpa)
+                    BEGIN
+                        UPDATE student_aggregates SET
+                            student_count = student_count - 1,
+                            sum_gpa = sum_gpa - old.gpa,
+                            sum_squares_gpa = sum_squares_gpa - old.gpa * old.gpa
+                        WHERE programme = old.programme AND level = old.level AND status = old.status;
+                        DELETE FROM student_aggregates
+                        WHERE programme = old.programme AND level = old.level AND status = old.status
+                          AND student_count <= 0;
+                        UPDATE student_aggregates SET
+                            min_gpa = (SELECT MIN(gpa) FROM students
+                                       WHERE programme = old.programme AND level = old.level AND status = old.status),
+                            max_gpa = (SELECT MAX(gpa) FROM students
+                                       WHERE programme = old.programme AND level = old.level AND status = old.status)
+                        WHERE programme = old.programme AND level = old.level AND status = old.status
+                          AND (min_gpa >= old.gpa OR max_gpa <= old.gpa);
+                        INSERT INTO student_aggregates
+                        VALUES (new.programme, new.level, new.status, 1, new.gpa, new.gpa * new.gpa, new.gpa, new.gpa)
+                        ON CONFLICT (programme, level, status) DO UPDATE SET
+                            student_count = student_count + 1,
+                            sum_gpa = sum_gpa + excluded.sum_gpa,
+                            sum_squares_gpa = sum_squares_gpa + excluded.sum_squares_gpa,
+                            min_gpa = MIN(min_gpa, excluded.min_gpa),
+                            max_gpa = MAX(max_gpa, excluded.max_gpa);
+                    END
+                    """)
+    );
+
+    private final Connection connection;
+
+    public SchemaMigrator(Connection connection) {
+        this.connection = connection;
+    }
+
+    // Latest schema version this build knows about
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).getVersion();
+    }
+
+    // Apply every migration newer than the database's user_version
+    public void migrate() throws SQLException {
+        int currentVersion = getCurrentVersion();
+        if (currentVersion > latestVersion()) {
+            throw new SQLException("Database schema version " + currentVersion
+                    + " is newer than this application supports (" + latestVersion() + ")");
+        }
+
+        for (Migration migration : MIGRATIONS) {
+            if (migration.getVersion() > currentVersion) {
+                apply(migration);
+            }
+        }
+    }
+
+    public int getCurrentVersion() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Migration migration) throws SQLException {
+        boolean previousAutoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : migration.getStatements()) {
+                stmt.execute(sql);
+            }
+            // user_version is part of the database header, so it commits with the changes
+            stmt.execute("PRAGMA user_version = " + migration.getVersion());
+            connection.commit();
+            System.out.println(" Applied migration " + migration.getVersion() + ": " + migration.getDescription());
+
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Migration " + migration.getVersion() + " ("
+                    + migration.getDescription() + ") failed: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(previousAutoCommit);
+        }
+    }
+}
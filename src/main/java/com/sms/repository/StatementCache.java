@@ -0,0 +1,82 @@
+package com.sms.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Keeps prepared statements open for reuse, keyed by their SQL text.
+// Preparing makes SQLite parse and plan the query, which costs more than
+// running most of our single-row statements. Once more than maxSize are
+// held, the least recently used one is closed.
+// Statements handed out stay owned by the cache - callers must not close
+// them. Like the connection it wraps, it is used by one thread at a time.
+class StatementCache implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements;
+    private long hits;
+    private long misses;
+
+    StatementCache(Connection connection, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Statement cache size must be at least 1");
+        }
+        this.connection = connection;
+        // Access order, so the eldest entry is the least recently used
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > maxSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Return the open statement for this SQL, preparing it on first use
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement pstmt = statements.get(sql);
+        if (pstmt != null && !pstmt.isClosed()) {
+            hits++;
+            return pstmt;
+        }
+        misses++;
+        pstmt = connection.prepareStatement(sql);
+        statements.put(sql, pstmt);
+        return pstmt;
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public void close() {
+        for (PreparedStatement pstmt : statements.values()) {
+            closeQuietly(pstmt);
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement pstmt) {
+        try {
+            pstmt.close();
+        } catch (SQLException ignored) {
+            // Closing a statement we no longer need - nothing to recover
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.sms.repository;
+
+// GPA statistics for one group of students (e.g. one programme)
+public class StudentAggregate {
+    private final String key;
+    private final long count;
+    private final double sumGpa;
+    private final double sumSquaresGpa;
+    private final double minGpa;
+    private final double maxGpa;
+
+    public StudentAggregate(String key, long count, double sumGpa, double sumSquaresGpa,
+                            double minGpa, double maxGpa) {
+        this.key = key;
+        this.count = count;
+        this.sumGpa = sumGpa;
+        this.sumSquaresGpa = sumSquaresGpa;
+        this.minGpa = minGpa;
+        this.maxGpa = maxGpa;
+    }
+
+    public String getKey() { return key; }
+    public long getCount() { return count; }
+    public double getSumGpa() { return sumGpa; }
+    public double getSumSquaresGpa() { return sumSquaresGpa; }
+    public double getMinGpa() { return minGpa; }
+    public double getMaxGpa() { return maxGpa; }
+
+    public double getAverageGpa() {
+        return count == 0 ? 0.0 : sumGpa / count;
+    }
+
+    // Population standard deviation of GPA in this group
+    public double getGpaStandardDeviation() {
+        if (count == 0) return 0.0;
+        double mean = getAverageGpa();
+        return Math.sqrt(Math.max(0.0, sumSquaresGpa / count - mean * mean));
+    }
+}
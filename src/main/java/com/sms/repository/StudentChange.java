@@ -0,0 +1,33 @@
+package com.sms.repository;
+
+import com.sms.domain.Student;
+import java.time.LocalDateTime;
+
+// One entry of the student_changes journal, with the student's current row
+public class StudentChange {
+
+    // DELETE covers a soft delete (status set to Inactive) and a removed row
+    public enum Type { INSERT, UPDATE, DELETE }
+
+    private final long seq;
+    private final String studentId;
+    private final Type type;
+    private final LocalDateTime changedAt;
+    private final Student student;
+
+    public StudentChange(long seq, String studentId, Type type, LocalDateTime changedAt, Student student) {
+        this.seq = seq;
+        this.studentId = studentId;
+        this.type = type;
+        this.changedAt = changedAt;
+        this.student = student;
+    }
+
+    public long getSeq() { return seq; }
+    public String getStudentId() { return studentId; }
+    public Type getType() { return type; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+
+    // The row as it is now (not as it was at this change); null if the row was removed
+    public Student getStudent() { return student; }
+}
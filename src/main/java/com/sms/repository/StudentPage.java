@@ -0,0 +1,43 @@
+package com.sms.repository;
+
+import com.sms.domain.Student;
+import java.util.List;
+
+// One page of students in (full_name, student_id) order, plus the cursor
+// needed to fetch the page after it (keyset pagination)
+public class StudentPage {
+
+    // Position of the last row already seen
+    public static class Cursor {
+        private final String fullName;
+        private final String studentId;
+
+        public Cursor(String fullName, String studentId) {
+            this.fullName = fullName;
+            this.studentId = studentId;
+        }
+
+        public String getFullName() { return fullName; }
+        public String getStudentId() { return studentId; }
+    }
+
+    private final List<Student> students;
+    private final boolean hasMore;
+
+    public StudentPage(List<Student> students, boolean hasMore) {
+        this.students = students;
+        this.hasMore = hasMore;
+    }
+
+    public List<Student> getStudents() { return students; }
+
+    // True when at least one more row exists after this page
+    public boolean hasMore() { return hasMore; }
+
+    // Cursor to pass to findStudentsPage() for the next page, or null if this is the last one
+    public Cursor getNextCursor() {
+        if (!hasMore || students.isEmpty()) return null;
+        Student last = students.get(students.size() - 1);
+        return new Cursor(last.getFullName(), last.getStudentId());
+    }
+}
@@ -0,0 +1,113 @@
+package com.sms.repository;
+
+import java.util.Objects;
+
+// Filter, sort and limit options for StudentRepository.findStudents().
+// Every filter is optional - a null value means "don't filter on this".
+public class StudentQuery {
+
+    // Columns the result can be ordered by
+    public enum SortField { FULL_NAME, GPA }
+
+    private String programme;
+    private Integer level;
+    private String status;
+    private String excludedStatus;
+    private String searchTerm;
+    private SortField sortField = SortField.FULL_NAME;
+    private boolean ascending = true;
+    private int limit; // 0 = no limit
+
+    // A query that matches every student, ordered by full name
+    public static StudentQuery all() {
+        return new StudentQuery();
+    }
+
+    public StudentQuery withProgramme(String programme) {
+        this.programme = blankToNull(programme);
+        return this;
+    }
+
+    public StudentQuery withLevel(Integer level) {
+        this.level = level;
+        return this;
+    }
+
+    public StudentQuery withStatus(String status) {
+        this.status = blankToNull(status);
+        return this;
+    }
+
+    // Only students whose status is not this one, e.g. those a status change would affect
+    public StudentQuery withStatusNot(String status) {
+        this.excludedStatus = blankToNull(status);
+        return this;
+    }
+
+    // Case-insensitive "contains" match on Student ID, Full Name or Email
+    public StudentQuery withSearchTerm(String searchTerm) {
+        this.searchTerm = (searchTerm == null || searchTerm.isEmpty()) ? null : searchTerm;
+        return this;
+    }
+
+    public StudentQuery sortBy(SortField sortField, boolean ascending) {
+        this.sortField = sortField == null ? SortField.FULL_NAME : sortField;
+        this.ascending = ascending;
+        return this;
+    }
+
+    public StudentQuery withLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public String getProgramme() { return programme; }
+    public Integer getLevel() { return level; }
+    public String getStatus() { return status; }
+    public String getExcludedStatus() { return excludedStatus; }
+    public String getSearchTerm() { return searchTerm; }
+    public SortField getSortField() { return sortField; }
+    public boolean isAscending() { return ascending; }
+    public int getLimit() { return limit; }
+
+    // An independent copy, e.g. for use as a map key while the original keeps changing
+    public StudentQuery copy() {
+        StudentQuery copy = new StudentQuery();
+        copy.programme = programme;
+        copy.level = level;
+        copy.status = status;
+        copy.excludedStatus = excludedStatus;
+        copy.searchTerm = searchTerm;
+        copy.sortField = sortField;
+        copy.ascending = ascending;
+        copy.limit = limit;
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StudentQuery)) return false;
+        StudentQuery other = (StudentQuery) o;
+        return ascending == other.ascending
+                && limit == other.limit
+                && Objects.equals(programme, other.programme)
+                && Objects.equals(level, other.level)
+                && Objects.equals(status, other.status)
+                && Objects.equals(excludedStatus, other.excludedStatus)
+                && Objects.equals(searchTerm, other.searchTerm)
+                && sortField == other.sortField;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(programme, level, status, excludedStatus, searchTerm, sortField, ascending, limit);
+    }
+
+    private static String blankToNull(String value) {
+        return (value == null || value.trim().isEmpty()) ? null : value;
+    }
+}
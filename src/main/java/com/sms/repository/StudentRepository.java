@@ -1,23 +1,126 @@
 package com.sms.repository;
 
 import com.sms.domain.Student;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 // This interface defines what our database can do
-public interface StudentRepository {
+public interface StudentRepository extends AutoCloseable {
     
     // Add a new student to the database
     void addStudent(Student student);
+
+    // Add many students in one transaction (used by CSV import)
+    void addStudents(List<Student> students);
+
+    // Insert new students and update existing ones (matched by ID) in one
+    // transaction; returns how many rows were inserted or actually changed
+    int upsertStudents(List<Student> students);
     
     // Get all students from the database
     List<Student> getAllStudents();
     
+    // Get the students matching a query (filtering, sorting and limit done in SQL)
+    List<Student> findStudents(StudentQuery query);
+
+    // Get one page of matching students ordered by (full_name, student_id), starting
+    // after the given cursor (null = first page). The query's sort and limit are ignored.
+    StudentPage findStudentsPage(StudentQuery query, StudentPage.Cursor after, int pageSize);
+
+    // Read matching students one row at a time from an open cursor, without
+    // building a list. The stream holds database resources - always close it
+    // (try-with-resources).
+    Stream<Student> streamStudents(StudentQuery query);
+
+    // Pass each matching student to the action, in query order, in bounded memory
+    void forEachStudent(StudentQuery query, Consumer<Student> action);
+
+    // Count matching students in the GPA bands [0,1), [1,2), [2,3) and [3,4]
+    // (index 0 to 3 of the result), grouped in SQL
+    long[] countGpaBands(StudentQuery filter);
+
+    // GPA statistics per programme for matching students, ordered by programme
+    List<StudentAggregate> aggregateByProgramme(StudentQuery filter);
+
+    // GPA statistics per level (key "100", "200", ...), ordered by level
+    List<StudentAggregate> aggregateByLevel(StudentQuery filter);
+
+    // GPA statistics per status ("Active", "Inactive")
+    List<StudentAggregate> aggregateByStatus(StudentQuery filter);
+
+    // Count the students matching a query (sort and limit are ignored)
+    int countStudents(StudentQuery query);
+
+    // Typeahead search over ID, name and email: prefix matches first, then by relevance
+    List<Student> searchStudents(String term, int limit);
+
+    // Up to limit journal entries with a sequence number above afterSeq, oldest
+    // first. Every insert, update and soft delete adds one (see StudentChange).
+    List<StudentChange> getChangesSince(long afterSeq, int limit);
+
+    // Sequence number of the newest journal entry (0 if there is none)
+    long getLatestChangeSeq();
+
+    // Remove journal entries with a sequence number below seq; returns how many went
+    int deleteChangesBefore(long seq);
+
     // Find one student by their ID
     Student findStudentById(String studentId);
+
+    // True if a student with this ID exists; answered from the primary key index
+    // without reading the row
+    boolean existsById(String studentId);
+
+    // The subset of the given IDs that already exist (one indexed probe per ID)
+    Set<String> existingIds(Collection<String> studentIds);
     
     // Update an existing student
     void updateStudent(Student student);
     
     // Delete a student (we'll mark as inactive instead of deleting)
     void deleteStudent(String studentId);
+
+    // Set the status of the given students in one transaction; returns how many rows changed
+    int setStatus(Collection<String> studentIds, String status);
+
+    // Set the status of every student matching the filter in one UPDATE
+    // (sort and limit are ignored); returns how many rows changed
+    int setStatusWhere(StudentQuery filter, String status);
+
+    // Permanently remove the given students in one transaction; returns how many
+    // rows were removed. Nothing is removed if any delete fails.
+    int hardDeleteStudents(Collection<String> studentIds);
+
+    // Run several reads against one state of the database: writes committed while
+    // they run are not seen by any of them. Reads made by `reads` on this thread
+    // share one connection and one read transaction.
+    <T> T readSnapshot(Supplier<T> reads);
+
+    // A cheap token that changes whenever student data may have changed, through
+    // this repository or any other connection. Equal tokens mean nothing changed,
+    // so results computed under the same token can be reused.
+    long getChangeToken();
+
+    // Write a consistent, compacted copy of the whole database to target (which
+    // must not exist yet). Writers are not paused while the copy is taken.
+    void backupTo(Path target, BackupListener listener);
+
+    // Replace the whole database with the contents of a database file (a
+    // backup), then bring its schema up to date
+    void restoreFrom(Path databaseFile);
+
+    // Told how far a backup has got (0.0 - 1.0); return false to cancel it
+    @FunctionalInterface
+    interface BackupListener {
+        boolean progress(double fractionDone);
+    }
+
+    // Release the database connection
+    @Override
+    void close();
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.sms.repository;
+
+import com.sms.domain.Student;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Builds a Student from a result row by column position.
+// Every student query selects COLUMNS in exactly this order, so the
+// positions are fixed and no column-name lookup is done per row.
+final class StudentRowMapper {
+
+    static final String COLUMNS =
+            "student_id, full_name, programme, level, gpa, email, phone_number, date_added, status";
+
+    // Column positions in COLUMNS (JDBC indexes start at 1)
+    private static final int STUDENT_ID = 1;
+    private static final int FULL_NAME = 2;
+    private static final int PROGRAMME = 3;
+    private static final int LEVEL = 4;
+    private static final int GPA = 5;
+    private static final int EMAIL = 6;
+    private static final int PHONE_NUMBER = 7;
+    private static final int DATE_ADDED = 8;
+    private static final int STATUS = 9;
+
+    private StudentRowMapper() {
+    }
+
+    // COLUMNS qualified with a table alias, for joins
+    static String columns(String alias) {
+        return alias + "." + COLUMNS.replace(", ", ", " + alias + ".");
+    }
+
+    static Student map(ResultSet rs) throws SQLException {
+        return map(rs, 0);
+    }
+
+    // For joins that select other columns first: COLUMNS start after `offset` columns
+    static Student map(ResultSet rs, int offset) throws SQLException {
+        return new Student(
+                rs.getString(offset + STUDENT_ID),
+                rs.getString(offset + FULL_NAME),
+                rs.getString(offset + PROGRAMME),
+                rs.getInt(offset + LEVEL),
+                rs.getDouble(offset + GPA),
+                rs.getString(offset + EMAIL),
+                rs.getString(offset + PHONE_NUMBER),
+                fromEpochMillis(rs.getLong(offset + DATE_ADDED)),
+                rs.getString(offset + STATUS)
+        );
+    }
+
+    // date_added is stored as epoch milliseconds of the wall-clock time read as UTC,
+    // so no time zone or DST rules are involved and values round-trip exactly (to the millisecond)
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1000 + dateTime.getNano() / 1_000_000;
+    }
+
+    static LocalDateTime fromEpochMillis(long epochMillis) {
+        long seconds = Math.floorDiv(epochMillis, 1000L);
+        int nanos = (int) Math.floorMod(epochMillis, 1000L) * 1_000_000;
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,539 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+import com.sms.repository.SQLiteConnectionProfile;
+import com.sms.repository.SQLiteStudentRepository;
+import com.sms.repository.StudentChange;
+import com.sms.repository.StudentRepository;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Compressed full and incremental backups of the student database, with a
+// retention policy and restore.
+//
+// A full backup is a VACUUM INTO snapshot, gzipped (students_full_<ts>.db.gz),
+// plus the last student_changes journal entry in it (students_full_<ts>.journal).
+// An incremental backup (students_incr_<ts>.delta.gz) holds only the rows that
+// were added or changed since the last full backup, and the IDs of rows that
+// were removed, read from the journal entries after that one. Restoring one
+// needs its full backup and nothing else, so old incrementals can be deleted freely.
+public class BackupService {
+
+    public static final String KEEP_FULL_KEY = "backup.keepFull";
+    public static final String KEEP_INCREMENTAL_KEY = "backup.keepIncremental";
+    public static final int DEFAULT_KEEP_FULL = 3;
+    public static final int DEFAULT_KEEP_INCREMENTAL = 7;
+
+    private static final String FULL_PREFIX = "students_full_";
+    private static final String FULL_SUFFIX = ".db.gz";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String INCREMENTAL_PREFIX = "students_incr_";
+    private static final String INCREMENTAL_SUFFIX = ".delta.gz";
+
+    // First bytes of a delta and a journal position file, so a wrong file is rejected early
+    private static final int DELTA_MAGIC = 0x534D5344;    // "SMSD"
+    private static final int JOURNAL_MAGIC = 0x534D534A;  // "SMSJ"
+    private static final int FORMAT_VERSION = 1;
+
+    // Journal entries read per query when building a delta
+    private static final int CHANGE_PAGE_SIZE = 1000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+
+    private final StudentRepository repository;
+    private final Path backupDir;
+    private final int keepFull;
+    private final int keepIncremental;
+
+    public BackupService(StudentRepository repository, Path backupDir, int keepFull, int keepIncremental) {
+        if (keepFull < 1 || keepIncremental < 0) {
+            throw new IllegalArgumentException("Keep at least one full backup, and zero or more incremental ones");
+        }
+        this.repository = repository;
+        this.backupDir = backupDir;
+        this.keepFull = keepFull;
+        this.keepIncremental = keepIncremental;
+    }
+
+    // Retention counts from the backup.* keys in the settings file, defaults if absent
+    public static BackupService fromSettings(StudentRepository repository, Path backupDir, Path settingsFile) {
+        Properties props = new Properties();
+        if (Files.exists(settingsFile)) {
+            try (InputStream in = Files.newInputStream(settingsFile)) {
+                props.load(in);
+            } catch (IOException e) {
+                System.err.println("Could not read backup settings, using defaults: " + e.getMessage());
+            }
+        }
+        try {
+            return new BackupService(repository, backupDir,
+                    Integer.parseInt(props.getProperty(KEEP_FULL_KEY, String.valueOf(DEFAULT_KEEP_FULL)).trim()),
+                    Integer.parseInt(props.getProperty(KEEP_INCREMENTAL_KEY, String.valueOf(DEFAULT_KEEP_INCREMENTAL)).trim()));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid backup settings, using defaults: " + e.getMessage());
+            return new BackupService(repository, backupDir, DEFAULT_KEEP_FULL, DEFAULT_KEEP_INCREMENTAL);
+        }
+    }
+
+    // Incremental if there is a full backup to build on and the current one has
+    // fewer than keepIncremental incrementals; otherwise start a new full backup
+    public Path backup(StudentRepository.BackupListener listener) {
+        Path latestFull = latestFullBackup();
+        if (latestFull == null || keepIncremental == 0
+                || incrementalsOf(latestFull.getFileName().toString()) >= keepIncremental
+                || !journalContinuesFrom(latestFull)) {
+            return createFullBackup(listener);
+        }
+        listener.progress(0.0);
+        Path delta = createIncrementalBackup();
+        listener.progress(1.0);
+        return delta;
+    }
+
+    public Path createFullBackup(StudentRepository.BackupListener listener) {
+        Path snapshot = null;
+        try {
+            Files.createDirectories(backupDir);
+            snapshot = Files.createTempFile(backupDir, "snapshot_", ".db");
+            Files.delete(snapshot); // VACUUM INTO needs a path that does not exist yet
+            repository.backupTo(snapshot, listener);
+
+            String name = uniqueName(FULL_PREFIX, FULL_SUFFIX);
+            Path full = backupDir.resolve(name);
+            // The journal position comes from the snapshot itself, so it matches the backup exactly
+            StudentChange position = lastChange(snapshot);
+            if (position != null) {
+                writeJournalPosition(backupDir.resolve(journalPositionName(name)), position);
+            }
+            gzip(snapshot, full);
+
+            System.out.println(" Full backup up to change " + (position == null ? 0 : position.getSeq())
+                    + " written to " + full);
+            applyRetention();
+            return full;
+
+        } catch (IOException e) {
+            System.err.println("Error writing full backup: " + e.getMessage());
+            throw new RuntimeException("Failed to write full backup", e);
+        } finally {
+            deleteQuietly(snapshot);
+        }
+    }
+
+    // Rows added, changed or removed since the latest full backup, from the journal
+    // entries after its position; the cost follows the number of changes, not the
+    // size of the table. The entries and rows are read in one snapshot.
+    public Path createIncrementalBackup() {
+        Path base = latestFullBackup();
+        if (base == null) {
+            throw new IllegalStateException("No full backup to build an incremental backup on");
+        }
+
+        try {
+            StudentChange position = readJournalPosition(base);
+            Map<String, Student> latest = repository.readSnapshot(() -> {
+                if (!journalContinuesFrom(position)) {
+                    throw new IllegalStateException("The change journal does not continue from "
+                            + base.getFileName() + "; take a full backup");
+                }
+                // Each entry carries the row as it is now (null once removed), so
+                // the last entry per student is all the delta needs
+                Map<String, Student> rows = new LinkedHashMap<>();
+                long after = position.getSeq();
+                List<StudentChange> page;
+                do {
+                    page = repository.getChangesSince(after, CHANGE_PAGE_SIZE);
+                    for (StudentChange change : page) {
+                        rows.put(change.getStudentId(), change.getStudent());
+                        after = change.getSeq();
+                    }
+                } while (page.size() == CHANGE_PAGE_SIZE);
+                return rows;
+            });
+
+            List<Student> changed = new ArrayList<>();
+            List<String> removed = new ArrayList<>();
+            for (Map.Entry<String, Student> row : latest.entrySet()) {
+                if (row.getValue() != null) {
+                    changed.add(row.getValue());
+                } else {
+                    removed.add(row.getKey());
+                }
+            }
+
+            Path delta = backupDir.resolve(uniqueName(INCREMENTAL_PREFIX, INCREMENTAL_SUFFIX));
+            Path partial = delta.resolveSibling(delta.getFileName() + ".part");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(partial), BUFFER_SIZE)))) {
+                out.writeInt(DELTA_MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(base.getFileName().toString());
+                out.writeInt(changed.size());
+                for (Student student : changed) {
+                    writeStudent(out, student);
+                }
+                out.writeInt(removed.size());
+                for (String studentId : removed) {
+                    out.writeUTF(studentId);
+                }
+            } catch (IOException e) {
+                deleteQuietly(partial);
+                throw e;
+            }
+            Files.move(partial, delta, StandardCopyOption.ATOMIC_MOVE);
+
+            System.out.println(" Incremental backup of " + changed.size() + " changed and "
+                    + removed.size() + " removed students written to " + delta);
+            applyRetention();
+            return delta;
+
+        } catch (IOException e) {
+            System.err.println("Error writing incremental backup: " + e.getMessage());
+            throw new RuntimeException("Failed to write incremental backup", e);
+        }
+    }
+
+    // Replace the database with a full backup, or with an incremental backup
+    // applied on top of its full backup
+    public void restore(Path backupFile) {
+        String name = backupFile.getFileName().toString();
+        Path database = null;
+        try {
+            if (name.endsWith(FULL_SUFFIX)) {
+                database = gunzipToTemp(backupFile);
+            } else if (name.endsWith(INCREMENTAL_SUFFIX)) {
+                database = rebuildFromDelta(backupFile);
+            } else {
+                throw new IllegalArgumentException("Not a backup file: " + name);
+            }
+            repository.restoreFrom(database);
+            if (name.endsWith(INCREMENTAL_SUFFIX)) {
+                // The database now holds the delta's rows but the full backup's journal,
+                // so that backup's position no longer describes it: start a new full
+                // backup from it for later incrementals to build on
+                createFullBackup(fractionDone -> true);
+            }
+
+        } catch (IOException e) {
+            System.err.println("Error restoring backup: " + e.getMessage());
+            throw new RuntimeException("Failed to restore backup " + name, e);
+        } finally {
+            deleteQuietly(database);
+        }
+    }
+
+    // Unpack the full backup the delta was taken against, then apply the delta to it
+    private Path rebuildFromDelta(Path deltaFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(deltaFile), BUFFER_SIZE)))) {
+            checkHeader(in, DELTA_MAGIC, deltaFile);
+            Path base = deltaFile.resolveSibling(in.readUTF());
+            if (!Files.exists(base)) {
+                throw new FileNotFoundException("Full backup " + base.getFileName() + " needed by "
+                        + deltaFile.getFileName() + " is missing");
+            }
+
+            Path database = gunzipToTemp(base);
+            try (SQLiteStudentRepository copy = new SQLiteStudentRepository(
+                    "jdbc:sqlite:" + database, SQLiteConnectionProfile.legacy())) {
+                int changedCount = in.readInt();
+                List<Student> changed = new ArrayList<>(changedCount);
+                for (int i = 0; i < changedCount; i++) {
+                    changed.add(readStudent(in));
+                }
+                // Replaying writes journal entries for every row; they are dropped again
+                // so the rows do not show up as new changes in exports or backups
+                long baseSeq = copy.getLatestChangeSeq();
+                copy.replaceStudents(changed);
+
+                int removedCount = in.readInt();
+                List<String> removed = new ArrayList<>(removedCount);
+                for (int i = 0; i < removedCount; i++) {
+                    removed.add(in.readUTF());
+                }
+                copy.hardDeleteStudents(removed);
+                copy.discardChangesAfter(baseSeq);
+            } catch (IOException | RuntimeException e) {
+                deleteQuietly(database);
+                throw e;
+            }
+            return database;
+        }
+    }
+
+    // Delete all but the newest keepFull full backups and keepIncremental
+    // incremental ones, and any incremental whose full backup is gone
+    public void applyRetention() {
+        try {
+            List<Path> fulls = list(FULL_PREFIX, FULL_SUFFIX);
+            for (int i = 0; i < fulls.size() - keepFull; i++) {
+                Path full = fulls.get(i);
+                Files.deleteIfExists(full);
+                Files.deleteIfExists(backupDir.resolve(journalPositionName(full.getFileName().toString())));
+                System.out.println(" Removed old backup " + full.getFileName());
+            }
+
+            List<Path> incrementals = list(INCREMENTAL_PREFIX, INCREMENTAL_SUFFIX);
+            for (int i = 0; i < incrementals.size(); i++) {
+                Path delta = incrementals.get(i);
+                boolean expired = i < incrementals.size() - keepIncremental;
+                if (expired || !Files.exists(delta.resolveSibling(baseOf(delta)))) {
+                    Files.deleteIfExists(delta);
+                    System.out.println(" Removed old backup " + delta.getFileName());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error applying backup retention: " + e.getMessage());
+        }
+    }
+
+    // Lowest journal sequence number the backups still need: incrementals check that
+    // the latest full backup's last entry is still there. Long.MAX_VALUE if there is
+    // no such backup, since the next backup is then a full one anyway.
+    public long oldestNeededChangeSeq() {
+        Path latestFull = latestFullBackup();
+        try {
+            StudentChange position = latestFull == null ? null : readJournalPosition(latestFull);
+            return position == null ? Long.MAX_VALUE : position.getSeq();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    // Full and incremental backups, oldest first
+    public List<Path> listBackups() {
+        try {
+            List<Path> backups = new ArrayList<>(list(FULL_PREFIX, FULL_SUFFIX));
+            backups.addAll(list(INCREMENTAL_PREFIX, INCREMENTAL_SUFFIX));
+            backups.sort(Comparator.comparing(path -> timestampOf(path.getFileName().toString())));
+            return backups;
+        } catch (IOException e) {
+            System.err.println("Error listing backups: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private Path latestFullBackup() {
+        try {
+            List<Path> fulls = list(FULL_PREFIX, FULL_SUFFIX);
+            return fulls.isEmpty() ? null : fulls.get(fulls.size() - 1);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private int incrementalsOf(String fullName) {
+        try {
+            int count = 0;
+            for (Path delta : list(INCREMENTAL_PREFIX, INCREMENTAL_SUFFIX)) {
+                if (fullName.equals(baseOf(delta))) count++;
+            }
+            return count;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    // Changed plus removed rows held by a delta
+    static int rowsIn(Path deltaFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(deltaFile), BUFFER_SIZE)))) {
+            checkHeader(in, DELTA_MAGIC, deltaFile);
+            in.readUTF();
+            int changedCount = in.readInt();
+            for (int i = 0; i < changedCount; i++) {
+                readStudent(in);
+            }
+            return changedCount + in.readInt();
+        }
+    }
+
+    // Name of the full backup a delta was taken against
+    private static String baseOf(Path deltaFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(Files.newInputStream(deltaFile)))) {
+            checkHeader(in, DELTA_MAGIC, deltaFile);
+            return in.readUTF();
+        }
+    }
+
+    // Backups of one kind, oldest first (names sort by their timestamp)
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        if (!Files.isDirectory(backupDir)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(backupDir)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(suffix);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private String uniqueName(String prefix, String suffix) {
+        String timestamp = LocalDateTime.now().format(TIMESTAMP);
+        String name = prefix + timestamp + suffix;
+        for (int i = 1; Files.exists(backupDir.resolve(name)); i++) {
+            name = prefix + timestamp + "_" + i + suffix;
+        }
+        return name;
+    }
+
+    private static String timestampOf(String name) {
+        String prefix = name.startsWith(FULL_PREFIX) ? FULL_PREFIX : INCREMENTAL_PREFIX;
+        return name.substring(prefix.length(), name.indexOf('.'));
+    }
+
+    private static String journalPositionName(String fullName) {
+        return fullName.substring(0, fullName.length() - FULL_SUFFIX.length()) + JOURNAL_SUFFIX;
+    }
+
+    // Whether the database's journal still holds the entry the full backup ended
+    // on. Restoring another backup replaces the journal, and then only a new full
+    // backup is a safe base.
+    private boolean journalContinuesFrom(Path fullBackup) {
+        try {
+            return journalContinuesFrom(readJournalPosition(fullBackup));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private boolean journalContinuesFrom(StudentChange position) {
+        if (position == null) return false;
+        List<StudentChange> at = repository.getChangesSince(position.getSeq() - 1, 1);
+        if (at.isEmpty()) return false;
+        StudentChange entry = at.get(0);
+        return entry.getSeq() == position.getSeq()
+                && entry.getStudentId().equals(position.getStudentId())
+                && entry.getType() == position.getType()
+                && entry.getChangedAt().equals(position.getChangedAt());
+    }
+
+    // Newest journal entry in a database file, null if its journal is empty
+    private static StudentChange lastChange(Path databaseFile) {
+        try (SQLiteStudentRepository copy = new SQLiteStudentRepository(
+                "jdbc:sqlite:" + databaseFile, SQLiteConnectionProfile.legacy())) {
+            long seq = copy.getLatestChangeSeq();
+            List<StudentChange> last = seq > 0 ? copy.getChangesSince(seq - 1, 1) : List.of();
+            return last.isEmpty() ? null : last.get(0);
+        }
+    }
+
+    private static void writeJournalPosition(Path file, StudentChange position) throws IOException {
+        LocalDateTime changedAt = position.getChangedAt();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(JOURNAL_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(position.getSeq());
+            out.writeUTF(position.getStudentId());
+            out.writeUTF(position.getType().name());
+            out.writeLong(changedAt.toEpochSecond(ZoneOffset.UTC) * 1000 + changedAt.getNano() / 1_000_000);
+        }
+    }
+
+    // Journal position of a full backup, null if it has none (its journal was empty)
+    private StudentChange readJournalPosition(Path fullBackup) throws IOException {
+        Path file = backupDir.resolve(journalPositionName(fullBackup.getFileName().toString()));
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            checkHeader(in, JOURNAL_MAGIC, file);
+            long seq = in.readLong();
+            String studentId = in.readUTF();
+            StudentChange.Type type = StudentChange.Type.valueOf(in.readUTF());
+            return new StudentChange(seq, studentId, type, fromEpochMillis(in.readLong()), null);
+        }
+    }
+
+    // Every column, date_added as epoch milliseconds (how the database stores it)
+    private static void writeStudent(DataOutputStream out, Student student) throws IOException {
+        LocalDateTime added = student.getDateAdded();
+        out.writeUTF(student.getStudentId());
+        out.writeUTF(student.getFullName());
+        out.writeUTF(student.getProgramme());
+        out.writeInt(student.getLevel());
+        out.writeDouble(student.getGpa());
+        out.writeUTF(student.getEmail());
+        out.writeUTF(student.getPhoneNumber());
+        out.writeLong(added.toEpochSecond(ZoneOffset.UTC) * 1000 + added.getNano() / 1_000_000);
+        out.writeUTF(student.getStatus());
+    }
+
+    private static Student readStudent(DataInputStream in) throws IOException {
+        String studentId = in.readUTF();
+        String fullName = in.readUTF();
+        String programme = in.readUTF();
+        int level = in.readInt();
+        double gpa = in.readDouble();
+        String email = in.readUTF();
+        String phoneNumber = in.readUTF();
+        LocalDateTime added = fromEpochMillis(in.readLong());
+        String status = in.readUTF();
+        return new Student(studentId, fullName, programme, level, gpa, email, phoneNumber, added, status);
+    }
+
+    private static LocalDateTime fromEpochMillis(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static void checkHeader(DataInputStream in, int magic, Path file) throws IOException {
+        if (in.readInt() != magic) {
+            throw new IOException(file.getFileName() + " is not a backup file of the expected kind");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException(file.getFileName() + " has unsupported format version " + version);
+        }
+    }
+
+    private static void gzip(Path source, Path target) throws IOException {
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial), BUFFER_SIZE)) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            throw e;
+        }
+        // Only a complete file ever carries the backup name
+        Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path gunzipToTemp(Path backupFile) throws IOException {
+        Path database = Files.createTempFile(backupDir, "restore_", ".db");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(backupFile), BUFFER_SIZE);
+             OutputStream out = Files.newOutputStream(database)) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            deleteQuietly(database);
+            throw e;
+        }
+        return database;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(Path.of(file + "-journal"));
+        } catch (IOException ignored) {
+            // Only a temporary file is left behind
+        }
+    }
+}
@@ -1,68 +1,57 @@
 package com.sms.service;
 
 import com.sms.domain.Student;
+import com.sms.repository.StudentAggregate;
+import com.sms.repository.StudentChange;
+import com.sms.repository.StudentPage;
+import com.sms.repository.StudentQuery;
 import com.sms.repository.StudentRepository;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class StudentService {
 
+    // Default number of CSV rows written per transaction during import
+    public static final int DEFAULT_IMPORT_CHUNK_SIZE = 5000;
+
+    // Journal entries read per query when collecting changes
+    private static final int CHANGE_PAGE_SIZE = 1000;
+
+    // Read results kept for reuse while the repository's change token is unchanged
+    private static final int MAX_MEMOIZED_RESULTS = 64;
+
     private final StudentRepository repository;
+    private int importChunkSize = DEFAULT_IMPORT_CHUNK_SIZE;
+
+    // Reports, counts and first pages keyed by their arguments. Screens reload
+    // these every time they open; on an unchanged database the answer is reused.
+    private final Map<Object, Object> memo = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+            return size() > MAX_MEMOIZED_RESULTS;
+        }
+    };
+    private long memoToken;
+    private long memoHits;
 
     public StudentService(StudentRepository repository) {
         this.repository = repository;
     }
 
     public void addStudent(Student student) {
-        // Validate Student ID: 4-20 alphanumeric characters
-        if (!ValidationService.isValidStudentId(student.getStudentId())) {
-            throw new IllegalArgumentException(
-                    "Invalid Student ID: Must be 4-20 alphanumeric characters");
-        }
-
-        // Validate Full Name: 2-60 characters, no numbers
-        if (!ValidationService.isValidFullName(student.getFullName())) {
-            throw new IllegalArgumentException(
-                    "Invalid Full Name: Must be 2-60 characters with no numbers");
-        }
-
-        // Validate Level: must be 100, 200, 300, 400, 500, 600, or 700
-        if (!ValidationService.isValidLevel(student.getLevel())) {
-            throw new IllegalArgumentException(
-                    "Invalid Level: Must be 100, 200, 300, 400, 500, 600, or 700");
-        }
-
-        // Validate GPA: between 0.0 and 4.0
-        if (!ValidationService.isValidGpa(student.getGpa())) {
-            throw new IllegalArgumentException(
-                    "Invalid GPA: Must be between 0.0 and 4.0");
-        }
-
-        // Validate Email: basic format check
-        if (!ValidationService.isValidEmail(student.getEmail())) {
-            throw new IllegalArgumentException(
-                    "Invalid Email: Must contain @ and .");
-        }
-
-        // Validate Phone: 10-15 digits only
-        if (!ValidationService.isValidPhoneNumber(student.getPhoneNumber())) {
-            throw new IllegalArgumentException(
-                    "Invalid Phone: Must be 10-15 digits");
-        }
-
-        // Validate Status: "Active" or "Inactive"
-        if (!ValidationService.isValidStatus(student.getStatus())) {
-            throw new IllegalArgumentException(
-                    "Invalid Status: Must be 'Active' or 'Inactive'");
-        }
+        validateFields(student);
 
         // Check for duplicate Student ID
-        if (repository.findStudentById(student.getStudentId()) != null) {
+        if (repository.existsById(student.getStudentId())) {
             throw new IllegalArgumentException(
                     "Student ID already exists: " + student.getStudentId());
         }
@@ -71,7 +60,8 @@ public class StudentService {
         repository.addStudent(student);
     }
 
-    public void updateStudent(Student student) {
+    // Field rules shared by add, update and CSV import
+    private void validateFields(Student student) {
         // Validate Student ID: 4-20 alphanumeric characters
         if (!ValidationService.isValidStudentId(student.getStudentId())) {
             throw new IllegalArgumentException(
@@ -113,9 +103,13 @@ public class StudentService {
             throw new IllegalArgumentException(
                     "Invalid Status: Must be 'Active' or 'Inactive'");
         }
+    }
+
+    public void updateStudent(Student student) {
+        validateFields(student);
 
         // Check if student exists (can't update non-existent student)
-        if (repository.findStudentById(student.getStudentId()) == null) {
+        if (!repository.existsById(student.getStudentId())) {
             throw new IllegalArgumentException(
                     "Student not found: " + student.getStudentId());
         }
@@ -124,60 +118,285 @@ public class StudentService {
         repository.updateStudent(student);
     }
 
+    // Change the status of many students at once (e.g. a graduating cohort);
+    // returns how many students changed
+    public int setStatus(Collection<String> studentIds, String status) {
+        validateStatus(status);
+        return repository.setStatus(studentIds, status);
+    }
+
+    // Change the status of every student matching the filter
+    public int setStatusWhere(StudentQuery filter, String status) {
+        validateStatus(status);
+        return repository.setStatusWhere(filter, status);
+    }
+
+    private void validateStatus(String status) {
+        if (!ValidationService.isValidStatus(status)) {
+            throw new IllegalArgumentException(
+                    "Invalid Status: Must be 'Active' or 'Inactive'");
+        }
+    }
+
     public List<Student> getAllStudents() {
         return repository.getAllStudents();
     }
+
+    // Students matching the query; filtering happens in SQL
+    public List<Student> findStudents(StudentQuery query) {
+        return repository.findStudents(query);
+    }
+
+    // One page of matching students in name order (null cursor = first page).
+    // The first page is what every screen opens with, so it is memoized.
+    public StudentPage findStudentsPage(StudentQuery query, StudentPage.Cursor after, int pageSize) {
+        if (after != null) {
+            return repository.findStudentsPage(query, after, pageSize);
+        }
+        return memoize(Arrays.asList("firstPage", query.copy(), pageSize),
+                () -> repository.findStudentsPage(query, null, pageSize));
+    }
+
+    public int countStudents(StudentQuery query) {
+        return memoize(Arrays.asList("count", query.copy()), () -> repository.countStudents(query));
+    }
+
+    // Totals for the dashboard cards, from the per-status running aggregates -
+    // two rows, however many students there are
+    public DashboardStats getDashboardStats() {
+        return memoize(List.of("dashboard"), () -> {
+            long total = 0;
+            long active = 0;
+            double sumGpa = 0;
+            for (StudentAggregate aggregate : repository.aggregateByStatus(StudentQuery.all())) {
+                total += aggregate.getCount();
+                sumGpa += aggregate.getSumGpa();
+                if ("Active".equals(aggregate.getKey())) {
+                    active = aggregate.getCount();
+                }
+            }
+            return new DashboardStats((int) total, (int) active, total == 0 ? 0.0 : sumGpa / total);
+        });
+    }
+
+    // Ranked search for typeahead boxes; backed by the full-text index for terms of 3+ characters
+    public List<Student> searchStudents(String term, int limit) {
+        return repository.searchStudents(term, limit);
+    }
+
+    // Pass every matching student to the action without loading the whole table
+    public void forEachStudent(StudentQuery query, Consumer<Student> action) {
+        repository.forEachStudent(query, action);
+    }
+
+    // The latest change of each student changed after afterSeq, ordered by that
+    // change - what a downstream feed needs to catch up. A student inserted and
+    // then updated appears once, as UPDATE, with the current row.
+    public List<StudentChange> getChangesSince(long afterSeq) {
+        Map<String, StudentChange> latest = new LinkedHashMap<>();
+        long seq = afterSeq;
+        List<StudentChange> page;
+        do {
+            page = repository.getChangesSince(seq, CHANGE_PAGE_SIZE);
+            for (StudentChange change : page) {
+                // Re-inserting moves the student to the end, keeping the map in change order
+                latest.remove(change.getStudentId());
+                latest.put(change.getStudentId(), change);
+                seq = change.getSeq();
+            }
+        } while (page.size() == CHANGE_PAGE_SIZE);
+        return new ArrayList<>(latest.values());
+    }
+
+    public long getLatestChangeSeq() {
+        return repository.getLatestChangeSeq();
+    }
+
+    // Drop journal entries below seq, once every reader of the journal (the change
+    // export and the incremental backups) has moved past them
+    public int pruneChangesBefore(long seq) {
+        return repository.deleteChangesBefore(seq);
+    }
+
+    // Consistent, compacted copy of the database; safe while other screens keep writing
+    public void backupDatabase(Path target, StudentRepository.BackupListener listener) {
+        repository.backupTo(target, listener);
+    }
     // Add to StudentService.java (after getAllStudents method)
 
     // Top 10 performers by GPA
+    // Sorting and the limit run in SQL, so only `limit` rows are read
     public List<Student> getTopPerformers(String programmeFilter, Integer levelFilter, int limit) {
-        return repository.getAllStudents().stream()
-                .filter(s -> "Active".equals(s.getStatus()))
-                .filter(s -> programmeFilter == null || programmeFilter.equals("All") || s.getProgramme().equals(programmeFilter))
-                .filter(s -> levelFilter == null || s.getLevel() == levelFilter)
-                .sorted(Comparator.comparingDouble(Student::getGpa).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        StudentQuery query = StudentQuery.all()
+                .withStatus("Active")
+                .withProgramme(programmeFilter == null || programmeFilter.equals("All") ? null : programmeFilter)
+                .withLevel(levelFilter)
+                .sortBy(StudentQuery.SortField.GPA, false)
+                .withLimit(limit);
+        return memoize(Arrays.asList("topPerformers", query), () -> loadTopPerformers(query));
+    }
+
+    private List<Student> loadTopPerformers(StudentQuery query) {
+        return Collections.unmodifiableList(repository.findStudents(query));
+    }
+
+    // Top performers with options: N, how GPA ties are ordered, and whether the
+    // top N is taken overall or per programme and/or level. Keyed by group
+    // (TopPerformerOptions.ALL_GROUP when not grouped), groups in name order.
+    // Grouped rankings come from one pass over the Active students, keeping a
+    // bounded heap of N per group instead of sorting everyone.
+    public Map<String, List<Student>> getTopPerformers(TopPerformerOptions options) {
+        TopPerformerOptions key = options.copy();
+        if (key.getGroupBy() == TopPerformerOptions.GroupBy.NONE
+                && key.getTieBreak() == TopPerformerOptions.TieBreak.NAME) {
+            // ORDER BY gpa DESC, full_name ... LIMIT in SQL already gives this order
+            return Map.of(TopPerformerOptions.ALL_GROUP,
+                    getTopPerformers(key.getProgramme(), key.getLevel(), key.getLimit()));
+        }
+
+        return memoize(Arrays.asList("topPerformerGroups", key), () -> {
+            Comparator<Student> order = key.order();
+            Map<String, TopN<Student>> groups = new TreeMap<>();
+            StudentQuery query = StudentQuery.all()
+                    .withStatus("Active")
+                    .withProgramme(key.getProgramme())
+                    .withLevel(key.getLevel());
+            repository.forEachStudent(query, s ->
+                    groups.computeIfAbsent(key.groupKey(s), group -> new TopN<>(key.getLimit(), order)).offer(s));
+
+            Map<String, List<Student>> result = new LinkedHashMap<>();
+            for (Map.Entry<String, TopN<Student>> entry : groups.entrySet()) {
+                result.put(entry.getKey(), Collections.unmodifiableList(entry.getValue().toSortedList()));
+            }
+            if (key.getGroupBy() == TopPerformerOptions.GroupBy.NONE && result.isEmpty()) {
+                result.put(TopPerformerOptions.ALL_GROUP, List.of());
+            }
+            return Collections.unmodifiableMap(result);
+        });
     }
 
     // At-risk students (GPA below threshold)
     public List<Student> getAtRiskStudents(double threshold) {
-        return repository.getAllStudents().stream()
-                .filter(s -> "Active".equals(s.getStatus()))
-                .filter(s -> s.getGpa() < threshold)
-                .sorted(Comparator.comparingDouble(Student::getGpa))
-                .collect(Collectors.toList());
+        return memoize(Arrays.asList("atRisk", threshold), () -> loadAtRiskStudents(threshold));
+    }
+
+    private List<Student> loadAtRiskStudents(double threshold) {
+        // Rows arrive lowest GPA first, so reading stops at the first one at or above the threshold
+        StudentQuery query = StudentQuery.all()
+                .withStatus("Active")
+                .sortBy(StudentQuery.SortField.GPA, true);
+        try (Stream<Student> students = repository.streamStudents(query)) {
+            return students
+                    .takeWhile(s -> s.getGpa() < threshold)
+                    .collect(Collectors.toUnmodifiableList());
+        }
     }
 
     // GPA distribution bands
     public Map<String, Long> getGpaDistribution() {
-        List<Student> activeStudents = repository.getAllStudents().stream()
-                .filter(s -> "Active".equals(s.getStatus()))
-                .collect(Collectors.toList());
+        return memoize(List.of("gpaDistribution"), this::loadGpaDistribution);
+    }
+
+    private Map<String, Long> loadGpaDistribution() {
+        // Counted with GROUP BY in SQL - only four rows come back
+        long[] bands = repository.countGpaBands(StudentQuery.all().withStatus("Active"));
 
         Map<String, Long> distribution = new LinkedHashMap<>();
-        distribution.put("0.0 - 1.0", activeStudents.stream().filter(s -> s.getGpa() >= 0.0 && s.getGpa() < 1.0).count());
-        distribution.put("1.0 - 2.0", activeStudents.stream().filter(s -> s.getGpa() >= 1.0 && s.getGpa() < 2.0).count());
-        distribution.put("2.0 - 3.0", activeStudents.stream().filter(s -> s.getGpa() >= 2.0 && s.getGpa() < 3.0).count());
-        distribution.put("3.0 - 4.0", activeStudents.stream().filter(s -> s.getGpa() >= 3.0 && s.getGpa() <= 4.0).count());
+        distribution.put("0.0 - 1.0", bands[0]);
+        distribution.put("1.0 - 2.0", bands[1]);
+        distribution.put("2.0 - 3.0", bands[2]);
+        distribution.put("3.0 - 4.0", bands[3]);
 
-        return distribution;
+        return Collections.unmodifiableMap(distribution);
     }
 
     // Programme summary
     public Map<String, ProgrammeStats> getProgrammeSummary() {
-        Map<String, List<Student>> grouped = repository.getAllStudents().stream()
-                .filter(s -> "Active".equals(s.getStatus()))
-                .collect(Collectors.groupingBy(Student::getProgramme));
+        return memoize(List.of("programmeSummary"), this::loadProgrammeSummary);
+    }
 
+    private Map<String, ProgrammeStats> loadProgrammeSummary() {
+        // One row per programme, summed from the running aggregates
         Map<String, ProgrammeStats> summary = new LinkedHashMap<>();
-        for (Map.Entry<String, List<Student>> entry : grouped.entrySet()) {
-            String programme = entry.getKey();
-            List<Student> students = entry.getValue();
-            double avgGpa = students.stream().mapToDouble(Student::getGpa).average().orElse(0.0);
-            summary.put(programme, new ProgrammeStats(students.size(), avgGpa));
+        for (StudentAggregate aggregate : repository.aggregateByProgramme(StudentQuery.all().withStatus("Active"))) {
+            summary.put(aggregate.getKey(),
+                    new ProgrammeStats((int) aggregate.getCount(), aggregate.getAverageGpa()));
         }
-        return summary;
+        return Collections.unmodifiableMap(summary);
+    }
+
+    // Everything the Reports screen shows when it opens: the same four queries as
+    // the single-report methods, run in one read transaction so every tab shows
+    // the same state of the database. The top performers use the programme/level
+    // filters; the other reports cover every Active student.
+    public ReportSet getReports(String programmeFilter, Integer levelFilter, int topLimit, double atRiskThreshold) {
+        StudentQuery topQuery = StudentQuery.all()
+                .withStatus("Active")
+                .withProgramme(programmeFilter == null || programmeFilter.equals("All") ? null : programmeFilter)
+                .withLevel(levelFilter)
+                .sortBy(StudentQuery.SortField.GPA, false)
+                .withLimit(topLimit);
+        return memoize(Arrays.asList("reports", topQuery, atRiskThreshold), () -> repository.readSnapshot(() ->
+                new ReportSet(loadTopPerformers(topQuery),
+                        loadAtRiskStudents(atRiskThreshold),
+                        loadGpaDistribution(),
+                        loadProgrammeSummary())));
+    }
+
+    // Return the result stored under key if the data has not changed since it was
+    // computed; otherwise compute it with loader. Any change drops every result.
+    // The lock only covers the map: loaders run outside it, so one slow report
+    // doesn't hold up every other screen's reads.
+    @SuppressWarnings("unchecked")
+    private <T> T memoize(Object key, Supplier<T> loader) {
+        long token = repository.getChangeToken();
+        synchronized (this) {
+            if (token != memoToken) {
+                memo.clear();
+                memoToken = token;
+            }
+
+            Object cached = memo.get(key);
+            if (cached != null) {
+                memoHits++;
+                return (T) cached;
+            }
+        }
+
+        T result = loader.get();
+
+        // A write while loading may have been half seen - return the result but don't keep it
+        if (repository.getChangeToken() == token) {
+            synchronized (this) {
+                if (memoToken == token) {
+                    memo.put(key, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    // How many reads were answered from memoized results (for tests and diagnostics)
+    public synchronized long getMemoHits() {
+        return memoHits;
+    }
+
+    // Helper class for the dashboard cards
+    public static class DashboardStats {
+        private final int totalStudents;
+        private final int activeStudents;
+        private final double averageGpa;
+
+        public DashboardStats(int totalStudents, int activeStudents, double averageGpa) {
+            this.totalStudents = totalStudents;
+            this.activeStudents = activeStudents;
+            this.averageGpa = averageGpa;
+        }
+
+        public int getTotalStudents() { return totalStudents; }
+        public int getActiveStudents() { return activeStudents; }
+        public int getInactiveStudents() { return totalStudents - activeStudents; }
+        public double getAverageGpa() { return averageGpa; }
     }
 
     // Helper class for programme stats
@@ -194,16 +413,56 @@ public class StudentService {
         public double getAverageGpa() { return averageGpa; }
     }
 
+    // The four Reports screen reports, read together by getReports
+    public static class ReportSet {
+        private final List<Student> topPerformers;
+        private final List<Student> atRiskStudents;
+        private final Map<String, Long> gpaDistribution;
+        private final Map<String, ProgrammeStats> programmeSummary;
+
+        public ReportSet(List<Student> topPerformers, List<Student> atRiskStudents,
+                         Map<String, Long> gpaDistribution, Map<String, ProgrammeStats> programmeSummary) {
+            this.topPerformers = topPerformers;
+            this.atRiskStudents = atRiskStudents;
+            this.gpaDistribution = gpaDistribution;
+            this.programmeSummary = programmeSummary;
+        }
+
+        public List<Student> getTopPerformers() { return topPerformers; }
+        public List<Student> getAtRiskStudents() { return atRiskStudents; }
+        public Map<String, Long> getGpaDistribution() { return gpaDistribution; }
+        public Map<String, ProgrammeStats> getProgrammeSummary() { return programmeSummary; }
+    }
+
     public Student findStudentById(String studentId) {
         return repository.findStudentById(studentId);
     }
 
-    // Import students from CSV with validation
+    // What CSV import does with a Student ID that is already in the database
+    public enum ImportMode {
+        FAIL,   // Report the row as a duplicate error
+        SKIP,   // Leave the existing student as it is
+        UPDATE  // Overwrite the existing student with the CSV row (upsert)
+    }
+
+    // Import students from CSV with validation; existing IDs are errors
     public ImportResult importStudentsFromCsv(String filePath) {
+        return importStudentsFromCsv(filePath, ImportMode.FAIL);
+    }
+
+    // Import students from CSV with validation
+    // Rows are buffered importChunkSize at a time; each chunk is validated in one
+    // ValidationService.validateAll call and its valid rows written in one transaction
+    public ImportResult importStudentsFromCsv(String filePath, ImportMode mode) {
+        long startTime = System.nanoTime();
         int successCount = 0;
         int errorCount = 0;
+        int skippedCount = 0;
         List<String> errors = new ArrayList<>();
 
+        List<String[]> rows = new ArrayList<>();
+        List<Integer> rowLines = new ArrayList<>();
+
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             String headerLine = reader.readLine(); // Skip header
             if (headerLine == null) {
@@ -215,80 +474,192 @@ public class StudentService {
 
             while ((line = reader.readLine()) != null) {
                 lineNumber++;
-                try {
-                    String[] fields = line.split(",");
-                    if (fields.length < 9) {
-                        errors.add("Line " + lineNumber + ": Insufficient fields");
-                        errorCount++;
-                        continue;
-                    }
-
-                    // Parse fields
-                    String studentId = fields[0].trim();
-                    String fullName = fields[1].trim();
-                    String programme = fields[2].trim();
-                    int level = Integer.parseInt(fields[3].trim());
-                    double gpa = Double.parseDouble(fields[4].trim());
-                    String email = fields[5].trim();
-                    String phone = fields[6].trim();
-                    String dateAdded = fields[7].trim();
-                    String status = fields[8].trim();
-
-                    // Check for duplicate ID
-                    if (repository.findStudentById(studentId) != null) {
-                        errors.add("Line " + lineNumber + ": Duplicate Student ID - " + studentId);
-                        errorCount++;
-                        continue;
-                    }
-
-                    // Create student object
-                    Student student = new Student(
-                            studentId,
-                            fullName,
-                            programme,
-                            level,
-                            gpa,
-                            email,
-                            phone,
-                            LocalDateTime.parse(dateAdded),
-                            status
-                    );
-
-                    // Validate using service layer
-                    addStudent(student); // This will throw exception if validation fails
-                    successCount++;
-
-                } catch (IllegalArgumentException e) {
-                    errors.add("Line " + lineNumber + ": " + e.getMessage());
-                    errorCount++;
-                } catch (Exception e) {
-                    errors.add("Line " + lineNumber + ": " + e.getMessage());
-                    errorCount++;
+                rows.add(line.split(","));
+                rowLines.add(lineNumber);
+
+                if (rows.size() >= importChunkSize) {
+                    int[] counts = importChunk(rows, rowLines, mode, errors);
+                    successCount += counts[0];
+                    skippedCount += counts[1];
+                    errorCount += counts[2];
+                    rows.clear();
+                    rowLines.clear();
                 }
             }
 
+            if (!rows.isEmpty()) {
+                int[] counts = importChunk(rows, rowLines, mode, errors);
+                successCount += counts[0];
+                skippedCount += counts[1];
+                errorCount += counts[2];
+            }
+
         } catch (IOException e) {
             return new ImportResult(0, 0, List.of("Failed to read CSV file: " + e.getMessage()));
         }
 
-        return new ImportResult(successCount, errorCount, errors);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        ImportResult result = new ImportResult(successCount, errorCount, skippedCount, errors, elapsedMillis);
+        System.out.printf(" Imported %d rows (%d unchanged) in %d ms (%.0f rows/sec)%n",
+                successCount, skippedCount, elapsedMillis, result.getRowsPerSecond());
+        return result;
+    }
+
+    // Validate one chunk of CSV rows in bulk and save the valid ones.
+    // Returns {saved, skipped, failed}, as flushImportChunk does
+    private int[] importChunk(List<String[]> rows, List<Integer> lines, ImportMode mode, List<String> errors) {
+        ValidationService.BulkValidationResult check = ValidationService.validateAll(rows);
+        // Messages are only built for the rows that failed
+        for (int row : check.getInvalidRows()) {
+            errors.add("Line " + lines.get(row) + ": " + String.join("; ", check.getErrors(row)));
+        }
+        int failed = check.getInvalidCount();
+
+        List<Student> pending = new ArrayList<>(rows.size() - failed);
+        List<Integer> pendingLines = new ArrayList<>(rows.size() - failed);
+        Set<String> pendingIds = new HashSet<>();
+        for (int row = 0; row < rows.size(); row++) {
+            if (!check.isValid(row)) continue;
+            Student student = studentFromCsv(rows.get(row));
+
+            // Check for a duplicate ID earlier in this chunk; IDs already in
+            // the database are checked for the whole chunk when it is flushed
+            if (!pendingIds.add(student.getStudentId())) {
+                errors.add("Line " + lines.get(row) + ": Duplicate Student ID - " + student.getStudentId());
+                failed++;
+                continue;
+            }
+            pending.add(student);
+            pendingLines.add(lines.get(row));
+        }
+
+        if (pending.isEmpty()) {
+            return new int[] {0, 0, failed};
+        }
+        int[] counts = flushImportChunk(pending, pendingLines, mode, errors);
+        counts[2] += failed;
+        return counts;
+    }
+
+    // A row that passed validateAll, so every field parses
+    private static Student studentFromCsv(String[] fields) {
+        // The CSV rules accept the status in any case; store it the way the app writes it
+        String status = fields[8].trim().equalsIgnoreCase("Inactive") ? "Inactive" : "Active";
+        return new Student(
+                fields[0].trim(),
+                fields[1].trim(),
+                fields[2].trim(),
+                Integer.parseInt(fields[3].trim()),
+                Double.parseDouble(fields[4].trim()),
+                fields[5].trim(),
+                fields[6].trim(),
+                LocalDateTime.parse(fields[7].trim()),
+                status
+        );
+    }
+
+    // Save one chunk of validated rows.
+    // Returns {saved, skipped, failed}: saved rows were inserted or changed, skipped
+    // rows were left as they are (existing IDs in SKIP mode, identical rows in UPDATE mode)
+    private int[] flushImportChunk(List<Student> chunk, List<Integer> lines, ImportMode mode, List<String> errors) {
+        if (mode == ImportMode.UPDATE) {
+            // ON CONFLICT does the existence check, so no separate probe is needed
+            try {
+                int written = repository.upsertStudents(chunk);
+                return new int[] {written, chunk.size() - written, 0};
+            } catch (RuntimeException e) {
+                reportChunkFailure(lines, e, errors);
+                return new int[] {0, 0, chunk.size()};
+            }
+        }
+
+        List<Student> toSave = new ArrayList<>(chunk.size());
+        List<Integer> toSaveLines = new ArrayList<>(chunk.size());
+        int skipped = 0;
+        int failed = 0;
+        try {
+            // One bulk primary-key probe for the whole chunk
+            Set<String> existing = repository.existingIds(
+                    chunk.stream().map(Student::getStudentId).collect(Collectors.toList()));
+            for (int i = 0; i < chunk.size(); i++) {
+                Student student = chunk.get(i);
+                if (!existing.contains(student.getStudentId())) {
+                    toSave.add(student);
+                    toSaveLines.add(lines.get(i));
+                } else if (mode == ImportMode.SKIP) {
+                    skipped++;
+                } else {
+                    errors.add("Line " + lines.get(i) + ": Duplicate Student ID - " + student.getStudentId());
+                    failed++;
+                }
+            }
+        } catch (RuntimeException e) {
+            reportChunkFailure(lines, e, errors);
+            return new int[] {0, 0, chunk.size()};
+        }
+
+        try {
+            repository.addStudents(toSave);
+            return new int[] {toSave.size(), skipped, failed};
+        } catch (RuntimeException e) {
+            reportChunkFailure(toSaveLines, e, errors);
+            return new int[] {0, skipped, failed + toSave.size()};
+        }
+    }
+
+    // The chunk is rolled back as a whole, so report every line in it
+    private void reportChunkFailure(List<Integer> lines, RuntimeException e, List<String> errors) {
+        String reason = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+        for (Integer line : lines) {
+            errors.add("Line " + line + ": Failed to save - " + reason);
+        }
+    }
+
+    // Rows written per repository call (one transaction) during CSV import
+    public void setImportChunkSize(int importChunkSize) {
+        if (importChunkSize < 1) {
+            throw new IllegalArgumentException("Import chunk size must be at least 1");
+        }
+        this.importChunkSize = importChunkSize;
     }
 
     // Helper class for import results
     public static class ImportResult {
         private final int successCount;
         private final int errorCount;
+        private final int skippedCount;
         private final List<String> errors;
+        private final long elapsedMillis;
 
         public ImportResult(int successCount, int errorCount, List<String> errors) {
+            this(successCount, errorCount, 0, errors, 0);
+        }
+
+        public ImportResult(int successCount, int errorCount, List<String> errors, long elapsedMillis) {
+            this(successCount, errorCount, 0, errors, elapsedMillis);
+        }
+
+        public ImportResult(int successCount, int errorCount, int skippedCount,
+                            List<String> errors, long elapsedMillis) {
             this.successCount = successCount;
             this.errorCount = errorCount;
+            this.skippedCount = skippedCount;
             this.errors = errors;
+            this.elapsedMillis = elapsedMillis;
         }
 
         public int getSuccessCount() { return successCount; }
         public int getErrorCount() { return errorCount; }
+        // Valid rows left unchanged: existing IDs in SKIP mode, identical rows in UPDATE mode
+        public int getSkippedCount() { return skippedCount; }
         public List<String> getErrors() { return errors; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        // Imported rows per second of wall-clock time
+        public double getRowsPerSecond() {
+            if (elapsedMillis <= 0) return successCount;
+            return successCount * 1000.0 / elapsedMillis;
+        }
     }
 
 
@@ -0,0 +1,43 @@
+package com.sms.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Keeps the best `limit` items offered so far, in O(log limit) per item and
+// O(limit) memory - no need to sort everything to take the first few.
+// `order` puts the best item first.
+class TopN<T> {
+
+    private final int limit;
+    private final Comparator<? super T> order;
+    // Worst kept item at the head, so it is the one dropped when a better one arrives
+    private final PriorityQueue<T> heap;
+
+    TopN(int limit, Comparator<? super T> order) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        this.limit = limit;
+        this.order = order;
+        this.heap = new PriorityQueue<>(Math.max(1, limit), order.reversed());
+    }
+
+    void offer(T item) {
+        if (limit == 0) return;
+        if (heap.size() < limit) {
+            heap.add(item);
+        } else if (order.compare(item, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+
+    // The kept items, best first
+    List<T> toSortedList() {
+        List<T> items = new ArrayList<>(heap);
+        items.sort(order);
+        return items;
+    }
+}
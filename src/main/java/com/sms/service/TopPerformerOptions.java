@@ -0,0 +1,127 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+// Options for StudentService.getTopPerformers(TopPerformerOptions): how many,
+// how GPA ties are ordered, optional programme/level filters, and whether the
+// top N is taken overall or within each programme and/or level.
+public class TopPerformerOptions {
+
+    // Order of students with the same GPA
+    public enum TieBreak {
+        NAME,        // Full name, then Student ID (the Reports screen order)
+        STUDENT_ID,
+        DATE_ADDED   // Longest-enrolled first, then Student ID
+    }
+
+    // Groups that each get their own top N
+    public enum GroupBy { NONE, PROGRAMME, LEVEL, PROGRAMME_AND_LEVEL }
+
+    // Group key used when the top N is taken over everyone
+    public static final String ALL_GROUP = "All";
+
+    private int limit = 10;
+    private TieBreak tieBreak = TieBreak.NAME;
+    private GroupBy groupBy = GroupBy.NONE;
+    private String programme;
+    private Integer level;
+
+    // The top `limit` Active students overall, ties by name
+    public static TopPerformerOptions top(int limit) {
+        return new TopPerformerOptions().withLimit(limit);
+    }
+
+    public TopPerformerOptions withLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public TopPerformerOptions withTieBreak(TieBreak tieBreak) {
+        this.tieBreak = tieBreak == null ? TieBreak.NAME : tieBreak;
+        return this;
+    }
+
+    public TopPerformerOptions groupBy(GroupBy groupBy) {
+        this.groupBy = groupBy == null ? GroupBy.NONE : groupBy;
+        return this;
+    }
+
+    // "All" or blank means every programme
+    public TopPerformerOptions withProgramme(String programme) {
+        this.programme = programme == null || programme.trim().isEmpty() || programme.equals("All") ? null : programme;
+        return this;
+    }
+
+    public TopPerformerOptions withLevel(Integer level) {
+        this.level = level;
+        return this;
+    }
+
+    public int getLimit() { return limit; }
+    public TieBreak getTieBreak() { return tieBreak; }
+    public GroupBy getGroupBy() { return groupBy; }
+    public String getProgramme() { return programme; }
+    public Integer getLevel() { return level; }
+
+    // Best first: highest GPA, then the tie-break
+    Comparator<Student> order() {
+        Comparator<Student> byGpa = Comparator.comparingDouble(Student::getGpa).reversed();
+        switch (tieBreak) {
+            case STUDENT_ID:
+                return byGpa.thenComparing(Student::getStudentId);
+            case DATE_ADDED:
+                return byGpa.thenComparing(Student::getDateAdded, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Student::getStudentId);
+            default:
+                return byGpa.thenComparing(Student::getFullName).thenComparing(Student::getStudentId);
+        }
+    }
+
+    // The group a student's ranking belongs to
+    String groupKey(Student student) {
+        switch (groupBy) {
+            case PROGRAMME:
+                return student.getProgramme();
+            case LEVEL:
+                return String.valueOf(student.getLevel());
+            case PROGRAMME_AND_LEVEL:
+                return student.getProgramme() + " / " + student.getLevel();
+            default:
+                return ALL_GROUP;
+        }
+    }
+
+    // An independent copy, e.g. for use as a map key while the original keeps changing
+    public TopPerformerOptions copy() {
+        TopPerformerOptions copy = new TopPerformerOptions();
+        copy.limit = limit;
+        copy.tieBreak = tieBreak;
+        copy.groupBy = groupBy;
+        copy.programme = programme;
+        copy.level = level;
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TopPerformerOptions)) return false;
+        TopPerformerOptions other = (TopPerformerOptions) o;
+        return limit == other.limit
+                && tieBreak == other.tieBreak
+                && groupBy == other.groupBy
+                && Objects.equals(programme, other.programme)
+                && Objects.equals(level, other.level);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(limit, tieBreak, groupBy, programme, level);
+    }
+}
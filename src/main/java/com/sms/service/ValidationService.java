@@ -1,8 +1,14 @@
 package com.sms.service;
 
+import com.sms.domain.Student;
 import javafx.collections.ObservableList;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 // This class handles ALL validation rules
 // Supports both fixed defaults (assignment requirements) and dynamic lists (Settings screen)
@@ -20,21 +26,40 @@ public class ValidationService {
     // ==================== STUDENT ID ====================
 
     // Validate Student ID: 4-20 alphanumeric characters, unique (uniqueness checked in service)
+    // Scans the trimmed range in place - runs for every imported row, so no regex or substrings
     public static boolean isValidStudentId(String id) {
-        if (id == null || id.trim().isEmpty()) return false;
-        String trimmed = id.trim();
-        return trimmed.matches("^[a-zA-Z0-9]{4,20}$");
+        if (id == null) return false;
+        int start = trimStart(id);
+        int end = trimEnd(id, start);
+        int length = end - start;
+        if (length < 4 || length > 20) return false;
+        for (int i = start; i < end; i++) {
+            if (!isAsciiLetterOrDigit(id.charAt(i))) return false;
+        }
+        return true;
     }
 
     // ==================== FULL NAME ====================
 
     // Validate Full Name: 2-60 characters, no digits, not just whitespace
+    // (trim() already strips whitespace, so 2+ characters left is never just whitespace)
     public static boolean isValidFullName(String name) {
         if (name == null) return false;
-        String trimmed = name.trim();
-        if (trimmed.length() < 2 || trimmed.length() > 60) return false;
-        if (trimmed.matches(".*\\d.*")) return false; // no digits allowed
-        return !trimmed.matches("^\\s+$"); // not just whitespace
+        int start = trimStart(name);
+        int end = trimEnd(name, start);
+        int length = end - start;
+        if (length < 2 || length > 60) return false;
+        boolean hasDigit = false;
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (isLineTerminator(c)) {
+                // The digit check used to be matches(".*\\d.*"), which never matches
+                // across a line break - kept as is so imports accept the same names
+                return true;
+            }
+            if (c >= '0' && c <= '9') hasDigit = true;
+        }
+        return !hasDigit;
     }
 
     // ==================== PROGRAMME ====================
@@ -123,10 +148,52 @@ public class ValidationService {
     // ==================== PHONE NUMBER ====================
 
     // Validate Phone: 10-15 digits only, no spaces or special characters
+    // Spaces, dashes and brackets are skipped as common formatting
     public static boolean isValidPhoneNumber(String phone) {
         if (phone == null) return false;
-        String trimmed = phone.trim().replaceAll("[\\s\\-\\(\\)]", ""); // remove common formatting
-        return trimmed.matches("^\\d{10,15}$");
+        int start = trimStart(phone);
+        int end = trimEnd(phone, start);
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (!isPhoneFormatting(c)) {
+                return false;
+            }
+        }
+        return digits >= 10 && digits <= 15;
+    }
+
+    // ==================== CHARACTER SCAN HELPERS ====================
+
+    // First index String.trim() would keep
+    private static int trimStart(String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') start++;
+        return start;
+    }
+
+    // End (exclusive) of what String.trim() would keep
+    private static int trimEnd(String value, int start) {
+        int end = value.length();
+        while (end > start && value.charAt(end - 1) <= ' ') end--;
+        return end;
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    // Characters the regex '.' does not match
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    // Regex class [\\s\\-\\(\\)] the old replaceAll removed
+    private static boolean isPhoneFormatting(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r'
+                || c == '-' || c == '(' || c == ')';
     }
 
     // ==================== STATUS ====================
@@ -164,40 +231,41 @@ public class ValidationService {
             double gpa, String email, String phone, String status) {
 
         ValidationResult result = new ValidationResult();
-
-        if (!isValidStudentId(studentId)) {
-            result.addError("Student ID must be 4-20 alphanumeric characters");
-        }
-
-        if (!isValidFullName(fullName)) {
-            result.addError("Full Name must be 2-60 characters with no digits");
-        }
-
-        if (!isValidProgramme(programme)) {
-            result.addError("Programme is required");
-        }
-
-        if (!isValidLevel(level)) {
-            result.addError("Level must be 100, 200, 300, 400, 500, 600, or 700");
-        }
-
-        if (!isValidGpa(gpa)) {
-            result.addError("GPA must be between 0.0 and 4.0");
-        }
-
-        if (!isValidEmail(email)) {
-            result.addError("Email must contain @ and .");
+        int mask = studentErrorMask(studentId, fullName, programme, level, gpa, email, phone, status);
+        for (String error : studentErrors(mask)) {
+            result.addError(error);
         }
+        return result;
+    }
 
-        if (!isValidPhoneNumber(phone)) {
-            result.addError("Phone must be 10-15 digits");
-        }
+    // Bitmask of ErrorCode bits for the rules validateStudent checks
+    private static int studentErrorMask(
+            String studentId, String fullName, String programme, int level,
+            double gpa, String email, String phone, String status) {
 
-        if (!isValidStatus(status)) {
-            result.addError("Status must be 'Active' or 'Inactive'");
-        }
+        int mask = 0;
+        if (!isValidStudentId(studentId)) mask |= ErrorCode.STUDENT_ID.bit();
+        if (!isValidFullName(fullName)) mask |= ErrorCode.FULL_NAME.bit();
+        if (!isValidProgramme(programme)) mask |= ErrorCode.PROGRAMME.bit();
+        if (!isValidLevel(level)) mask |= ErrorCode.LEVEL.bit();
+        if (!isValidGpa(gpa)) mask |= ErrorCode.GPA.bit();
+        if (!isValidEmail(email)) mask |= ErrorCode.EMAIL.bit();
+        if (!isValidPhoneNumber(phone)) mask |= ErrorCode.PHONE.bit();
+        if (!isValidStatus(status)) mask |= ErrorCode.STATUS.bit();
+        return mask;
+    }
 
-        return result;
+    private static List<String> studentErrors(int mask) {
+        List<String> errors = new ArrayList<>(Integer.bitCount(mask));
+        if ((mask & ErrorCode.STUDENT_ID.bit()) != 0) errors.add("Student ID must be 4-20 alphanumeric characters");
+        if ((mask & ErrorCode.FULL_NAME.bit()) != 0) errors.add("Full Name must be 2-60 characters with no digits");
+        if ((mask & ErrorCode.PROGRAMME.bit()) != 0) errors.add("Programme is required");
+        if ((mask & ErrorCode.LEVEL.bit()) != 0) errors.add("Level must be 100, 200, 300, 400, 500, 600, or 700");
+        if ((mask & ErrorCode.GPA.bit()) != 0) errors.add("GPA must be between 0.0 and 4.0");
+        if ((mask & ErrorCode.EMAIL.bit()) != 0) errors.add("Email must contain @ and .");
+        if ((mask & ErrorCode.PHONE.bit()) != 0) errors.add("Phone must be 10-15 digits");
+        if ((mask & ErrorCode.STATUS.bit()) != 0) errors.add("Status must be 'Active' or 'Inactive'");
+        return errors;
     }
 
     // Validate student with dynamic programme/level lists (from Settings)
@@ -274,64 +342,138 @@ public class ValidationService {
     // Validate a CSV row for student import
     public static ValidationResult validateCsvRow(String[] fields) {
         ValidationResult result = new ValidationResult();
+        for (String error : csvRowErrors(fields, csvRowErrorMask(fields))) {
+            result.addError(error);
+        }
+        return result;
+    }
 
+    // Bitmask of ErrorCode bits for a CSV row. The validators trim for themselves,
+    // so a valid row is checked without creating any strings.
+    private static int csvRowErrorMask(String[] fields) {
         if (fields == null || fields.length < 9) {
-            result.addError("Insufficient fields in CSV row");
-            return result;
+            return ErrorCode.FIELD_COUNT.bit();
         }
 
-        String studentId = fields[0].trim();
-        String fullName = fields[1].trim();
-        String programme = fields[2].trim();
-        String levelStr = fields[3].trim();
-        String gpaStr = fields[4].trim();
-        String email = fields[5].trim();
-        String phone = fields[6].trim();
-        String dateAdded = fields[7].trim();
-        String status = fields[8].trim();
+        int mask = 0;
+        if (!isValidStudentId(fields[0])) mask |= ErrorCode.STUDENT_ID.bit();
+        if (!isValidFullName(fields[1])) mask |= ErrorCode.FULL_NAME.bit();
+        if (!isValidProgramme(fields[2])) mask |= ErrorCode.PROGRAMME.bit();
+        try {
+            if (!isValidLevel(Integer.parseInt(fields[3].trim()))) mask |= ErrorCode.LEVEL.bit();
+        } catch (NumberFormatException e) {
+            mask |= ErrorCode.LEVEL_FORMAT.bit();
+        }
+        if (!isValidGpaString(fields[4])) mask |= ErrorCode.GPA.bit();
+        if (!isValidEmail(fields[5])) mask |= ErrorCode.EMAIL.bit();
+        if (!isValidPhoneNumber(fields[6])) mask |= ErrorCode.PHONE.bit();
+        if (!isValidDateTime(fields[7])) mask |= ErrorCode.DATE.bit();
+        if (!isValidStatusFlexible(fields[8])) mask |= ErrorCode.STATUS.bit();
+        return mask;
+    }
 
-        // Validate each field
-        if (!isValidStudentId(studentId)) {
-            result.addError("Invalid Student ID: " + studentId);
-        }
+    // The messages for a CSV row's error bits, naming the offending values
+    private static List<String> csvRowErrors(String[] fields, int mask) {
+        List<String> errors = new ArrayList<>(Integer.bitCount(mask));
+        if ((mask & ErrorCode.FIELD_COUNT.bit()) != 0) {
+            errors.add("Insufficient fields in CSV row");
+            return errors;
+        }
+        if ((mask & ErrorCode.STUDENT_ID.bit()) != 0) errors.add("Invalid Student ID: " + fields[0].trim());
+        if ((mask & ErrorCode.FULL_NAME.bit()) != 0) errors.add("Invalid Full Name: " + fields[1].trim());
+        if ((mask & ErrorCode.PROGRAMME.bit()) != 0) errors.add("Invalid Programme: " + fields[2].trim());
+        if ((mask & ErrorCode.LEVEL.bit()) != 0) errors.add("Invalid Level: " + fields[3].trim());
+        if ((mask & ErrorCode.LEVEL_FORMAT.bit()) != 0) errors.add("Level must be a number: " + fields[3].trim());
+        if ((mask & ErrorCode.GPA.bit()) != 0) errors.add("Invalid GPA: " + fields[4].trim());
+        if ((mask & ErrorCode.EMAIL.bit()) != 0) errors.add("Invalid Email: " + fields[5].trim());
+        if ((mask & ErrorCode.PHONE.bit()) != 0) errors.add("Invalid Phone: " + fields[6].trim());
+        if ((mask & ErrorCode.DATE.bit()) != 0) errors.add("Invalid Date Format: " + fields[7].trim());
+        if ((mask & ErrorCode.STATUS.bit()) != 0) errors.add("Invalid Status: " + fields[8].trim());
+        return errors;
+    }
 
-        if (!isValidFullName(fullName)) {
-            result.addError("Invalid Full Name: " + fullName);
-        }
+    // ==================== BULK VALIDATION ====================
 
-        if (!isValidProgramme(programme)) {
-            result.addError("Invalid Programme: " + programme);
-        }
+    // One bit per rule in a row's error mask
+    public enum ErrorCode {
+        FIELD_COUNT, STUDENT_ID, FULL_NAME, PROGRAMME, LEVEL, LEVEL_FORMAT,
+        GPA, EMAIL, PHONE, DATE, STATUS;
 
-        try {
-            int level = Integer.parseInt(levelStr);
-            if (!isValidLevel(level)) {
-                result.addError("Invalid Level: " + levelStr);
-            }
-        } catch (NumberFormatException e) {
-            result.addError("Level must be a number: " + levelStr);
+        public int bit() {
+            return 1 << ordinal();
         }
+    }
 
-        if (!isValidGpaString(gpaStr)) {
-            result.addError("Invalid GPA: " + gpaStr);
-        }
+    // Below this many rows the work is not worth splitting across threads
+    private static final int PARALLEL_THRESHOLD = 2_000;
 
-        if (!isValidEmail(email)) {
-            result.addError("Invalid Email: " + email);
+    // Validate many CSV rows at once on the common ForkJoin pool. Each row costs
+    // one int in the result; messages are only built when getErrors asks for them.
+    public static BulkValidationResult validateAll(List<String[]> rows) {
+        String[][] array = rows.toArray(new String[0][]);
+        int[] masks = new int[array.length];
+        forEachRow(array.length, i -> masks[i] = csvRowErrorMask(array[i]));
+        return new BulkValidationResult(masks, row -> csvRowErrors(array[row], masks[row]));
+    }
+
+    // Validate many students at once, with the rules of validateStudent
+    public static BulkValidationResult validateAllStudents(List<Student> students) {
+        Student[] array = students.toArray(new Student[0]);
+        int[] masks = new int[array.length];
+        forEachRow(array.length, i -> {
+            Student s = array[i];
+            masks[i] = studentErrorMask(s.getStudentId(), s.getFullName(), s.getProgramme(), s.getLevel(),
+                    s.getGpa(), s.getEmail(), s.getPhoneNumber(), s.getStatus());
+        });
+        return new BulkValidationResult(masks, row -> studentErrors(masks[row]));
+    }
+
+    private static void forEachRow(int count, IntConsumer action) {
+        IntStream rows = IntStream.range(0, count);
+        if (count >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
         }
+        rows.forEach(action);
+    }
 
-        if (!isValidPhoneNumber(phone)) {
-            result.addError("Invalid Phone: " + phone);
+    // Error masks for a batch of rows, by row index (0 = valid)
+    public static class BulkValidationResult {
+        private final int[] errorMasks;
+        private final IntFunction<List<String>> messages;
+        private final int invalidCount;
+
+        private BulkValidationResult(int[] errorMasks, IntFunction<List<String>> messages) {
+            this.errorMasks = errorMasks;
+            this.messages = messages;
+            int invalid = 0;
+            for (int mask : errorMasks) {
+                if (mask != 0) invalid++;
+            }
+            this.invalidCount = invalid;
         }
 
-        if (!isValidDateTime(dateAdded)) {
-            result.addError("Invalid Date Format: " + dateAdded);
+        public int size() { return errorMasks.length; }
+        public int getInvalidCount() { return invalidCount; }
+        public boolean isValid(int row) { return errorMasks[row] == 0; }
+        public int getErrorMask(int row) { return errorMasks[row]; }
+
+        public boolean hasError(int row, ErrorCode code) {
+            return (errorMasks[row] & code.bit()) != 0;
         }
 
-        if (!isValidStatusFlexible(status)) {
-            result.addError("Invalid Status: " + status);
+        // Indexes of the rows that failed, in order
+        public int[] getInvalidRows() {
+            int[] invalid = new int[invalidCount];
+            int n = 0;
+            for (int row = 0; row < errorMasks.length; row++) {
+                if (errorMasks[row] != 0) invalid[n++] = row;
+            }
+            return invalid;
         }
 
-        return result;
+        // Same messages as validateCsvRow / validateStudent; empty for a valid row
+        public List<String> getErrors(int row) {
+            return errorMasks[row] == 0 ? List.of() : messages.apply(row);
+        }
     }
 }
\ No newline at end of file
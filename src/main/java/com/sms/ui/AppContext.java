@@ -0,0 +1,58 @@
+package com.sms.ui;
+
+import com.sms.repository.CachingStudentRepository;
+import com.sms.repository.SQLiteStudentRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.service.BackupService;
+import com.sms.service.StudentService;
+
+import java.nio.file.Paths;
+
+// Application-scoped objects shared by every screen.
+// MainApp opens the database once at startup and closes it on exit, so
+// navigating between screens no longer opens (and leaks) a new connection.
+public final class AppContext {
+
+    private static StudentRepository repository;
+    private static StudentService studentService;
+    private static BackupService backupService;
+
+    private AppContext() {
+    }
+
+    // Open the database and build the service (called from MainApp.init)
+    public static synchronized void init() {
+        if (studentService != null) return;
+        // Dialogs look the same students up repeatedly; this connection is the only writer
+        repository = new CachingStudentRepository(new SQLiteStudentRepository());
+        studentService = new StudentService(repository);
+        backupService = BackupService.fromSettings(repository, Paths.get("data/backups"),
+                Paths.get(SQLiteStudentRepository.SETTINGS_FILE));
+    }
+
+    // The shared service; opens the database on first use if init() was not called
+    public static synchronized StudentService getStudentService() {
+        if (studentService == null) {
+            init();
+        }
+        return studentService;
+    }
+
+    // Full/incremental backups and restore of the shared database
+    public static synchronized BackupService getBackupService() {
+        if (backupService == null) {
+            init();
+        }
+        return backupService;
+    }
+
+    // Close the shared connection (called from MainApp.stop)
+    public static synchronized void shutdown() {
+        if (repository != null) {
+            repository.close();
+        }
+        repository = null;
+        studentService = null;
+        backupService = null;
+    }
+}
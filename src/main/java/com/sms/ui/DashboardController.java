@@ -1,7 +1,5 @@
 package com.sms.ui;
 
-import com.sms.domain.Student;
-import com.sms.repository.SQLiteStudentRepository;
 import com.sms.service.StudentService;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -15,7 +13,6 @@ import javafx.stage.Stage;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 public class DashboardController {
 
@@ -48,8 +45,7 @@ public class DashboardController {
 
     public void initialize() {
         try {
-            SQLiteStudentRepository repo = new SQLiteStudentRepository();
-            studentService = new StudentService(repo);
+            studentService = AppContext.getStudentService();
             
             // Initialize activity log
             activityLog = FXCollections.observableArrayList();
@@ -74,24 +70,13 @@ public class DashboardController {
     
     private void loadDashboardStats() {
         try {
-            List<Student> allStudents = studentService.getAllStudents();
+            // Aggregated in SQL, and reused while the data has not changed
+            StudentService.DashboardStats stats = studentService.getDashboardStats();
             
-            totalStudentsLabel.setText(String.valueOf(allStudents.size()));
-            
-            long activeCount = allStudents.stream()
-                .filter(s -> "Active".equals(s.getStatus()))
-                .count();
-            long inactiveCount = allStudents.size() - activeCount;
-            
-            activeStudentsLabel.setText(String.valueOf(activeCount));
-            inactiveStudentsLabel.setText(String.valueOf(inactiveCount));
-            
-            double avgGpa = allStudents.stream()
-                .mapToDouble(Student::getGpa)
-                .average()
-                .orElse(0.0);
-            
-            averageGpaLabel.setText(String.format("%.2f", avgGpa));
+            totalStudentsLabel.setText(String.valueOf(stats.getTotalStudents()));
+            activeStudentsLabel.setText(String.valueOf(stats.getActiveStudents()));
+            inactiveStudentsLabel.setText(String.valueOf(stats.getInactiveStudents()));
+            averageGpaLabel.setText(String.format("%.2f", stats.getAverageGpa()));
             
         } catch (Exception e) {
             System.err.println("Error loading dashboard stats: " + e.getMessage());
@@ -1,8 +1,10 @@
 package com.sms.ui;
 
 import com.sms.domain.Student;
-import com.sms.repository.SQLiteStudentRepository;
+import com.sms.repository.StudentChange;
+import com.sms.repository.StudentQuery;
 import com.sms.service.StudentService;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -20,13 +22,19 @@ import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Properties;
 
 public class ImportExportController {
 
+    private static final String SETTINGS_FILE = "data/settings.properties";
+    // Journal sequence number of the last row written by a change export
+    private static final String LAST_EXPORTED_CHANGE_KEY = "export.lastChangeSeq";
+
     // Import tab
     @FXML private Button chooseFileButton;
     @FXML private Label selectedFileName;
     @FXML private Button startImportButton;
+    @FXML private ComboBox<String> importModeCombo;
     @FXML private Label successCountLabel;
     @FXML private Label errorCountLabel;
     @FXML private Button viewErrorReportButton;
@@ -35,6 +43,7 @@ public class ImportExportController {
     @FXML private RadioButton exportAllStudentsRadio;
     @FXML private RadioButton exportActiveOnlyRadio;
     @FXML private RadioButton exportInactiveOnlyRadio;
+    @FXML private RadioButton exportChangesRadio;
     @FXML private ToggleGroup exportToggleGroup; // Add this for FXML binding
     @FXML private Button exportAllButton;
     @FXML private Button exportTopPerformersQuickButton;
@@ -56,8 +65,7 @@ public class ImportExportController {
 
     public void initialize() {
         try {
-            SQLiteStudentRepository repo = new SQLiteStudentRepository();
-            studentService = new StudentService(repo);
+            studentService = AppContext.getStudentService();
 
             // Setup ToggleGroup for RadioButtons (if not set in FXML)
             if (exportToggleGroup == null) {
@@ -65,9 +73,15 @@ public class ImportExportController {
                 exportAllStudentsRadio.setToggleGroup(exportToggleGroup);
                 exportActiveOnlyRadio.setToggleGroup(exportToggleGroup);
                 exportInactiveOnlyRadio.setToggleGroup(exportToggleGroup);
+                exportChangesRadio.setToggleGroup(exportToggleGroup);
                 exportAllStudentsRadio.setSelected(true);
             }
 
+            // Labels in the same order as StudentService.ImportMode
+            importModeCombo.getItems().addAll(
+                    "Reject as duplicates", "Skip (keep existing)", "Update existing students");
+            importModeCombo.getSelectionModel().selectFirst();
+
             setupButtonActions();
             System.out.println("Import/Export screen loaded successfully");
 
@@ -119,10 +133,43 @@ public class ImportExportController {
         try {
             // Ensure data folder exists
             Files.createDirectories(Paths.get("data"));
+        } catch (Exception e) {
+            showError("Import Error", "Failed to import CSV: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
 
-            // Perform import
-            StudentService.ImportResult result = studentService.importStudentsFromCsv(selectedFile.getAbsolutePath());
+        // Run the import off the JavaFX thread so the window stays responsive;
+        // other screens keep reading from the database while it writes
+        StudentService.ImportMode mode =
+                StudentService.ImportMode.values()[importModeCombo.getSelectionModel().getSelectedIndex()];
+        String path = selectedFile.getAbsolutePath();
+        Task<StudentService.ImportResult> importTask = new Task<>() {
+            @Override
+            protected StudentService.ImportResult call() {
+                return studentService.importStudentsFromCsv(path, mode);
+            }
+        };
+
+        importTask.setOnSucceeded(event -> {
+            startImportButton.setDisable(false);
+            showImportResult(importTask.getValue());
+        });
+        importTask.setOnFailed(event -> {
+            startImportButton.setDisable(false);
+            Throwable e = importTask.getException();
+            showError("Import Error", "Failed to import CSV: " + e.getMessage());
+            e.printStackTrace();
+        });
+
+        startImportButton.setDisable(true);
+        Thread worker = new Thread(importTask, "csv-import");
+        worker.setDaemon(true);
+        worker.start();
+    }
 
+    private void showImportResult(StudentService.ImportResult result) {
+        try {
             // Update UI
             successCountLabel.setText(String.valueOf(result.getSuccessCount()));
             errorCountLabel.setText(String.valueOf(result.getErrorCount()));
@@ -136,7 +183,10 @@ public class ImportExportController {
             // Show summary
             String message = "Import completed!\n\n" +
                     "Successfully imported: " + result.getSuccessCount() + "\n" +
-                    "Errors: " + result.getErrorCount();
+                    "Unchanged (already up to date or skipped): " + result.getSkippedCount() + "\n" +
+                    "Errors: " + result.getErrorCount() + "\n" +
+                    String.format("Time: %.1f s (%.0f rows/sec)",
+                            result.getElapsedMillis() / 1000.0, result.getRowsPerSecond());
 
             if (!result.getErrors().isEmpty()) {
                 message += "\n\nError report saved to: data/import_errors_" +
@@ -146,7 +196,7 @@ public class ImportExportController {
             showAlert("Import Summary", message);
 
             // Log import
-            logImportOperation(result.getSuccessCount(), result.getErrorCount());
+            logImportOperation(result.getSuccessCount(), result.getErrorCount(), result.getRowsPerSecond());
 
         } catch (Exception e) {
             showError("Import Error", "Failed to import CSV: " + e.getMessage());
@@ -186,22 +236,20 @@ public class ImportExportController {
     }
 
     private void handleExportAll() {
+        if (exportChangesRadio.isSelected()) {
+            handleExportChanges();
+            return;
+        }
+
         try {
             Files.createDirectories(Paths.get("data"));
 
-            // Get all students from database
-            List<Student> allStudents = studentService.getAllStudents();
-
             // Filter based on selected RadioButton
-            List<Student> studentsToExport = allStudents;
+            StudentQuery query = StudentQuery.all();
             if (exportActiveOnlyRadio.isSelected()) {
-                studentsToExport = allStudents.stream()
-                        .filter(s -> "Active".equals(s.getStatus()))
-                        .toList();
+                query.withStatus("Active");
             } else if (exportInactiveOnlyRadio.isSelected()) {
-                studentsToExport = allStudents.stream()
-                        .filter(s -> "Inactive".equals(s.getStatus()))
-                        .toList();
+                query.withStatus("Inactive");
             }
 
             // Setup file chooser
@@ -214,9 +262,9 @@ public class ImportExportController {
 
             File file = fileChooser.showSaveDialog(mainStage);
             if (file != null) {
-                exportStudentsToCsv(studentsToExport, file);
-                logExportOperation("All Students Export", studentsToExport.size());
-                showAlert("Export Complete", "Exported " + studentsToExport.size() + " students to:\n" + file.getAbsolutePath());
+                int exported = exportStudentsToCsv(query, file);
+                logExportOperation("All Students Export", exported);
+                showAlert("Export Complete", "Exported " + exported + " students to:\n" + file.getAbsolutePath());
             }
 
         } catch (Exception e) {
@@ -225,26 +273,137 @@ public class ImportExportController {
         }
     }
 
-    private void exportStudentsToCsv(List<Student> students, File file) throws IOException {
+    // Delta export: only the students changed since the last delta export, one
+    // row each with what happened to them. The last exported sequence number is
+    // kept in settings.properties, so the next export carries on from there.
+    // Reading the journal and writing the file run off the JavaFX thread: after
+    // a large import there can be a great many changes to page through.
+    private void handleExportChanges() {
+        Properties settings;
+        long afterSeq;
+        try {
+            Files.createDirectories(Paths.get("data"));
+            settings = loadSettings();
+            afterSeq = Long.parseLong(settings.getProperty(LAST_EXPORTED_CHANGE_KEY, "0").trim());
+        } catch (Exception e) {
+            showError("Export Error", "Failed to export changes: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+
+        // A single lookup of the newest sequence number tells whether there is anything to export
+        if (studentService.getLatestChangeSeq() <= afterSeq) {
+            showAlert("Export Changes", "No student records have changed since the last change export.");
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Changed Students to CSV");
+        fileChooser.setInitialDirectory(new File("data"));
+        fileChooser.setInitialFileName("students_changes_" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+
+        File file = fileChooser.showSaveDialog(mainStage);
+        if (file == null) return;
+
+        Task<Integer> exportTask = new Task<>() {
+            @Override
+            protected Integer call() throws IOException {
+                List<StudentChange> changes = studentService.getChangesSince(afterSeq);
+                long lastSeq = afterSeq;
+                try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+                    writer.write("Change Seq,Change Type,Changed At,Student ID,Full Name,Programme,Level,GPA,Email,Phone,Date Added,Status\n");
+                    for (StudentChange change : changes) {
+                        writer.write(change.getSeq() + "," + change.getType() + "," + change.getChangedAt() + ",");
+                        if (change.getStudent() != null) {
+                            writer.write(csvRow(change.getStudent()));
+                        } else {
+                            // Row no longer exists - only its ID is known
+                            writer.write(escapeCsv(change.getStudentId()) + ",,,,,,,,\n");
+                        }
+                        lastSeq = Math.max(lastSeq, change.getSeq());
+                    }
+                }
+
+                settings.setProperty(LAST_EXPORTED_CHANGE_KEY, String.valueOf(lastSeq));
+                saveSettings(settings);
+                // The journal only needs what this export and the backups have not moved past yet
+                studentService.pruneChangesBefore(
+                        Math.min(lastSeq + 1, AppContext.getBackupService().oldestNeededChangeSeq()));
+                logExportOperation("Changed Students Export", changes.size());
+                return changes.size();
+            }
+        };
+
+        exportTask.setOnSucceeded(event -> {
+            exportAllButton.setDisable(false);
+            showAlert("Export Complete", "Exported " + exportTask.getValue() + " changed students to:\n" + file.getAbsolutePath());
+        });
+        exportTask.setOnFailed(event -> {
+            exportAllButton.setDisable(false);
+            Throwable e = exportTask.getException();
+            showError("Export Error", "Failed to export changes: " + e.getMessage());
+            e.printStackTrace();
+        });
+
+        exportAllButton.setDisable(true);
+        Thread worker = new Thread(exportTask, "change-export");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private Properties loadSettings() throws IOException {
+        Properties props = new Properties();
+        File settingsFile = new File(SETTINGS_FILE);
+        if (settingsFile.exists()) {
+            try (FileInputStream fis = new FileInputStream(settingsFile)) {
+                props.load(fis);
+            }
+        }
+        return props;
+    }
+
+    private void saveSettings(Properties props) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(SETTINGS_FILE)) {
+            props.store(fos, "Student Management System Settings");
+        }
+    }
+
+    // Stream matching students straight from the database into the file;
+    // returns the number of rows written
+    private int exportStudentsToCsv(StudentQuery query, File file) throws IOException {
+        int[] count = {0};
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
             // Write header
             writer.write("Student ID,Full Name,Programme,Level,GPA,Email,Phone,Date Added,Status\n");
 
             // Write data rows
-            for (Student s : students) {
-                writer.write(
-                        escapeCsv(s.getStudentId()) + "," +
-                                escapeCsv(s.getFullName()) + "," +
-                                escapeCsv(s.getProgramme()) + "," +
-                                s.getLevel() + "," +
-                                s.getGpa() + "," +
-                                escapeCsv(s.getEmail()) + "," +
-                                escapeCsv(s.getPhoneNumber()) + "," +
-                                s.getDateAdded() + "," +
-                                escapeCsv(s.getStatus()) + "\n"
-                );
-            }
+            studentService.forEachStudent(query, s -> {
+                try {
+                    writer.write(csvRow(s));
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+        return count[0];
+    }
+
+    // One student as a CSV line, in the column order of the export header
+    private String csvRow(Student s) {
+        return escapeCsv(s.getStudentId()) + "," +
+                escapeCsv(s.getFullName()) + "," +
+                escapeCsv(s.getProgramme()) + "," +
+                s.getLevel() + "," +
+                s.getGpa() + "," +
+                escapeCsv(s.getEmail()) + "," +
+                escapeCsv(s.getPhoneNumber()) + "," +
+                s.getDateAdded() + "," +
+                escapeCsv(s.getStatus()) + "\n";
     }
 
     // Helper method to escape CSV fields that contain commas or quotes
@@ -528,14 +687,15 @@ public class ImportExportController {
         }
     }
     // Logging
-    private void logImportOperation(int successCount, int errorCount) {
+    private void logImportOperation(int successCount, int errorCount, double rowsPerSecond) {
         try {
             Files.createDirectories(Paths.get("data"));
             String logFile = "data/app.log";
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
             try (BufferedWriter writer = new BufferedWriter(new FileWriter(logFile, true))) {
-                writer.write(timestamp + " - IMPORT - Success: " + successCount + ", Errors: " + errorCount + "\n");
+                writer.write(timestamp + " - IMPORT - Success: " + successCount + ", Errors: " + errorCount +
+                        String.format(", Rate: %.0f rows/sec", rowsPerSecond) + "\n");
             }
 
         } catch (IOException e) {
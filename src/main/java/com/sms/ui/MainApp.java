@@ -8,6 +8,12 @@ import javafx.stage.Stage;
 import java.io.IOException;
 
 public class MainApp extends Application {
+    @Override
+    public void init() {
+        // Open the database once for the whole application
+        AppContext.init();
+    }
+
     @Override
     public void start(Stage stage) throws IOException {
         // Load Dashboard as the landing screen
@@ -26,6 +32,12 @@ public class MainApp extends Application {
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        // Release the database connection on exit
+        AppContext.shutdown();
+    }
+
     public static void main(String[] args) {
         launch();
     }
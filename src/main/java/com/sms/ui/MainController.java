@@ -1,10 +1,8 @@
 package com.sms.ui;
 
 import com.sms.domain.Student;
-import com.sms.repository.SQLiteStudentRepository;
+import com.sms.repository.StudentQuery;
 import com.sms.service.StudentService;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -16,8 +14,6 @@ import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.util.Comparator;
-import java.util.List;
-import java.util.stream.Collectors;
 
 public class MainController {
 
@@ -52,14 +48,13 @@ public class MainController {
     @FXML private TableColumn<Student, String> actionsCol;
 
     private StudentService studentService;
-    private ObservableList<Student> studentData;
+    private StudentTablePager pager;
     private Stage mainStage;
 
     public void initialize() {
         try {
-            // Initialize database connection
-            SQLiteStudentRepository repo = new SQLiteStudentRepository();
-            studentService = new StudentService(repo);
+            // Use the application-wide database connection
+            studentService = AppContext.getStudentService();
 
             // Initialize combo boxes with "All" option
             levelFilter.getItems().addAll("All", "100", "200", "300", "400", "500", "600", "700");
@@ -73,6 +68,7 @@ public class MainController {
 
             // Initialize table columns
             setupTableColumns();
+            pager = new StudentTablePager(studentTable, studentService, this::buildQuery);
 
             // Setup button actions
             setupButtonActions();
@@ -81,7 +77,7 @@ public class MainController {
             setupSearchAndFilter();
 
             // Load initial data
-            loadStudentData();
+            refreshAll();
 
 
 
@@ -105,10 +101,6 @@ public class MainController {
         phoneCol.setCellValueFactory(new PropertyValueFactory<>("phoneNumber"));
         statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
 
-        // Enable sorting on GPA and Full Name columns
-        fullNameCol.setSortable(true);
-        gpaCol.setSortable(true);
-
         // Actions column with View and Edit buttons
         actionsCol.setCellFactory(col -> new TableCell<>() {
             private final HBox container = new HBox(5);
@@ -168,57 +160,8 @@ public class MainController {
 
     private void loadStudentData() {
         try {
-            // Get all students from database
-            List<Student> allStudents = studentService.getAllStudents();
-
-            // Apply filters
-            String programme = programmeFilter.getValue();
-            String levelStr = levelFilter.getValue();
-            String status = statusFilter.getValue();
-            String searchTerm = searchField.getText().toLowerCase();
-
-            List<Student> filtered = allStudents.stream()
-                    .filter(student -> {
-                        // Programme filter
-                        if (!"All".equals(programme) && !student.getProgramme().equals(programme)) {
-                            return false;
-                        }
-                        // Level filter
-                        if (!"All".equals(levelStr)) {
-                            int level = Integer.parseInt(levelStr);
-                            if (student.getLevel() != level) {
-                                return false;
-                            }
-                        }
-                        // Status filter
-                        if (!"All".equals(status) && !student.getStatus().equals(status)) {
-                            return false;
-                        }
-                        // Search filter
-                        if (!searchTerm.isEmpty()) {
-                            return student.getStudentId().toLowerCase().contains(searchTerm) ||
-                                    student.getFullName().toLowerCase().contains(searchTerm);
-                        }
-                        return true;
-                    })
-                    .collect(Collectors.toList());
-
-            // Update table
-            studentData = FXCollections.observableArrayList(filtered);
-            studentTable.setItems(studentData);
-
-            // Update dashboard stats (using ALL students, not filtered)
-            totalStudentsLabel.setText(String.valueOf(allStudents.size()));
-            long activeCount = allStudents.stream().filter(s -> "Active".equals(s.getStatus())).count();
-            long inactiveCount = allStudents.size() - activeCount;
-            double avgGpa = allStudents.stream()
-                    .mapToDouble(Student::getGpa)
-                    .average()
-                    .orElse(0.0);
-
-            activeStudentsLabel.setText(String.valueOf(activeCount));
-            inactiveStudentsLabel.setText(String.valueOf(inactiveCount));
-            averageGpaLabel.setText(String.format("%.2f", avgGpa));
+            // Only the first page of matching rows is read; the rest load on scroll
+            pager.reload();
 
         } catch (Exception e) {
             System.err.println("Error loading student data: " + e.getMessage());
@@ -227,6 +170,42 @@ public class MainController {
         }
     }
 
+    // Turn the current filter controls into a query ("All" means no filter)
+    private StudentQuery buildQuery() {
+        String programme = programmeFilter.getValue();
+        String levelStr = levelFilter.getValue();
+        String status = statusFilter.getValue();
+
+        return StudentQuery.all()
+                .withProgramme("All".equals(programme) ? null : programme)
+                .withLevel(levelStr == null || "All".equals(levelStr) ? null : Integer.parseInt(levelStr))
+                .withStatus("All".equals(status) ? null : status)
+                .withSearchTerm(searchField.getText());
+    }
+
+    // Dashboard stats use ALL students, so they only change when data changes,
+    // not when the filters or search text change
+    private void loadDashboardStats() {
+        try {
+            StudentService.DashboardStats stats = studentService.getDashboardStats();
+
+            totalStudentsLabel.setText(String.valueOf(stats.getTotalStudents()));
+            activeStudentsLabel.setText(String.valueOf(stats.getActiveStudents()));
+            inactiveStudentsLabel.setText(String.valueOf(stats.getInactiveStudents()));
+            averageGpaLabel.setText(String.format("%.2f", stats.getAverageGpa()));
+
+        } catch (Exception e) {
+            System.err.println("Error loading dashboard stats: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // Reload the table and the stats after the data has changed
+    private void refreshAll() {
+        loadStudentData();
+        loadDashboardStats();
+    }
+
     private void setupSearchAndFilter() {
         searchField.textProperty().addListener((observable, oldValue, newValue) -> loadStudentData());
         programmeFilter.valueProperty().addListener((observable, oldValue, newValue) -> loadStudentData());
@@ -238,7 +217,7 @@ public class MainController {
         addStudentButton.setOnAction(e -> handleAddStudent());
         editStudentButton.setOnAction(e -> handleEditSelectedStudent());
         deleteStudentButton.setOnAction(e -> handleDeleteStudent());
-        refreshButton.setOnAction(e -> loadStudentData());
+        refreshButton.setOnAction(e -> refreshAll());
         reportsButton.setOnAction(e -> handleNavigateToReports());
         importButton.setOnAction(e -> handleNavigateToImportExport());
         exportButton.setOnAction(e -> handleNavigateToImportExport());
@@ -261,7 +240,7 @@ public class MainController {
             dialogStage.initOwner(mainStage);
 
             dialogStage.showAndWait();
-            loadStudentData();
+            refreshAll();
 
         } catch (IOException e) {
             System.err.println("Error loading add student dialog: " + e.getMessage());
@@ -287,7 +266,7 @@ public class MainController {
             dialogStage.initOwner(mainStage);
 
             dialogStage.showAndWait();
-            loadStudentData();
+            refreshAll();
 
         } catch (IOException e) {
             System.err.println("Error loading edit student dialog: " + e.getMessage());
@@ -337,7 +316,7 @@ public class MainController {
                     );
                     studentService.updateStudent(inactiveStudent);
                     showAlert("Success", "Student marked as Inactive");
-                    loadStudentData();
+                    refreshAll();
                 } catch (Exception e) {
                     System.err.println("Error deleting student: " + e.getMessage());
                     e.printStackTrace();
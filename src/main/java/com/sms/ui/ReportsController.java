@@ -1,7 +1,6 @@
 package com.sms.ui;
 
 import com.sms.domain.Student;
-import com.sms.repository.SQLiteStudentRepository;
 import com.sms.service.StudentService;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
@@ -66,8 +65,7 @@ public class ReportsController {
     public void initialize() {
         try {
             // Initialize service
-            SQLiteStudentRepository repo = new SQLiteStudentRepository();
-            studentService = new StudentService(repo);
+            studentService = AppContext.getStudentService();
 
             // Setup filters
             setupFilters();
@@ -75,11 +73,8 @@ public class ReportsController {
             // Setup tables
             setupTables();
 
-            // Load initial data
-            loadTopPerformers();
-            loadAtRiskStudents();
-            loadGpaDistribution();
-            loadProgrammeSummary();
+            // Load initial data - all four reports in one read transaction
+            loadAllReports();
 
             // Setup button actions
             setupButtonActions();
@@ -163,24 +158,46 @@ public class ReportsController {
         exportSummaryButton.setOnAction(e -> exportProgrammeSummaryToCsv());
     }
 
-    private void loadTopPerformers() {
+    private void loadAllReports() {
+        double threshold;
+        try {
+            threshold = Double.parseDouble(atRiskThresholdField.getText());
+        } catch (NumberFormatException e) {
+            // Fall back to loading each report on its own, which reports the bad threshold
+            loadTopPerformers();
+            loadAtRiskStudents();
+            loadGpaDistribution();
+            loadProgrammeSummary();
+            return;
+        }
+
         try {
-            String programme = topPerformerProgrammeFilter.getValue();
-            if ("All".equals(programme)) programme = null;
+            StudentService.ReportSet reports = studentService.getReports(
+                    selectedProgramme(), selectedLevel(), 10, threshold);
+            showTopPerformers(reports.getTopPerformers());
+            atRiskTable.setItems(FXCollections.observableArrayList(reports.getAtRiskStudents()));
+            showGpaDistribution(reports.getGpaDistribution());
+            showProgrammeSummary(reports.getProgrammeSummary());
 
-            String levelStr = topPerformerLevelFilter.getValue();
-            Integer level = "All".equals(levelStr) ? null : Integer.parseInt(levelStr);
+        } catch (Exception e) {
+            System.err.println("Error loading reports: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
 
-            List<Student> students = studentService.getTopPerformers(programme, level, 10);
+    private String selectedProgramme() {
+        String programme = topPerformerProgrammeFilter.getValue();
+        return "All".equals(programme) ? null : programme;
+    }
 
-            ObservableList<TopPerformer> performers = FXCollections.observableArrayList();
-            int rank = 1;
-            for (Student s : students) {
-                performers.add(new TopPerformer(rank++, s.getFullName(), s.getStudentId(),
-                        s.getProgramme(), s.getLevel(), s.getGpa()));
-            }
+    private Integer selectedLevel() {
+        String levelStr = topPerformerLevelFilter.getValue();
+        return "All".equals(levelStr) ? null : Integer.parseInt(levelStr);
+    }
 
-            topPerformersTable.setItems(performers);
+    private void loadTopPerformers() {
+        try {
+            showTopPerformers(studentService.getTopPerformers(selectedProgramme(), selectedLevel(), 10));
 
         } catch (Exception e) {
             System.err.println("Error loading top performers: " + e.getMessage());
@@ -188,6 +205,17 @@ public class ReportsController {
         }
     }
 
+    private void showTopPerformers(List<Student> students) {
+        ObservableList<TopPerformer> performers = FXCollections.observableArrayList();
+        int rank = 1;
+        for (Student s : students) {
+            performers.add(new TopPerformer(rank++, s.getFullName(), s.getStudentId(),
+                    s.getProgramme(), s.getLevel(), s.getGpa()));
+        }
+
+        topPerformersTable.setItems(performers);
+    }
+
     private void loadAtRiskStudents() {
         try {
             double threshold = Double.parseDouble(atRiskThresholdField.getText());
@@ -204,17 +232,7 @@ public class ReportsController {
 
     private void loadGpaDistribution() {
         try {
-            Map<String, Long> distribution = studentService.getGpaDistribution();
-
-            XYChart.Series<String, Number> series = new XYChart.Series<>();
-            series.setName("Student Count");
-
-            for (Map.Entry<String, Long> entry : distribution.entrySet()) {
-                series.getData().add(new XYChart.Data<>(entry.getKey(), entry.getValue()));
-            }
-
-            gpaChart.getData().clear();
-            gpaChart.getData().add(series);
+            showGpaDistribution(studentService.getGpaDistribution());
 
         } catch (Exception e) {
             System.err.println("Error loading GPA distribution: " + e.getMessage());
@@ -222,18 +240,21 @@ public class ReportsController {
         }
     }
 
-    private void loadProgrammeSummary() {
-        try {
-            Map<String, StudentService.ProgrammeStats> summary = studentService.getProgrammeSummary();
+    private void showGpaDistribution(Map<String, Long> distribution) {
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName("Student Count");
 
-            ObservableList<ProgrammeSummaryRow> rows = FXCollections.observableArrayList();
-            for (Map.Entry<String, StudentService.ProgrammeStats> entry : summary.entrySet()) {
-                rows.add(new ProgrammeSummaryRow(entry.getKey(),
-                        entry.getValue().getStudentCount(),
-                        entry.getValue().getAverageGpa()));
-            }
+        for (Map.Entry<String, Long> entry : distribution.entrySet()) {
+            series.getData().add(new XYChart.Data<>(entry.getKey(), entry.getValue()));
+        }
 
-            programmeSummaryTable.setItems(rows);
+        gpaChart.getData().clear();
+        gpaChart.getData().add(series);
+    }
+
+    private void loadProgrammeSummary() {
+        try {
+            showProgrammeSummary(studentService.getProgrammeSummary());
 
         } catch (Exception e) {
             System.err.println("Error loading programme summary: " + e.getMessage());
@@ -241,6 +262,17 @@ public class ReportsController {
         }
     }
 
+    private void showProgrammeSummary(Map<String, StudentService.ProgrammeStats> summary) {
+        ObservableList<ProgrammeSummaryRow> rows = FXCollections.observableArrayList();
+        for (Map.Entry<String, StudentService.ProgrammeStats> entry : summary.entrySet()) {
+            rows.add(new ProgrammeSummaryRow(entry.getKey(),
+                    entry.getValue().getStudentCount(),
+                    entry.getValue().getAverageGpa()));
+        }
+
+        programmeSummaryTable.setItems(rows);
+    }
+
     // Export methods
     private void exportTopPerformersToCsv() {
         exportTableToCsv(topPerformersTable.getItems(), "top_performers_export.csv",
@@ -1,21 +1,22 @@
 package com.sms.ui;
 
-import com.sms.repository.SQLiteStudentRepository;
 import com.sms.service.StudentService;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import java.awt.Desktop;
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -45,7 +46,10 @@ public class SettingsController {
     
     // Database
     @FXML private Button backupDatabaseButton;
+    @FXML private Button restoreDatabaseButton;
     @FXML private Button viewLogButton;
+    @FXML private ProgressBar backupProgressBar;
+    @FXML private Label backupStatusLabel;
     
     // Application Info
     @FXML private Label javaVersionLabel;
@@ -69,8 +73,7 @@ public class SettingsController {
 
     public void initialize() {
         try {
-            SQLiteStudentRepository repo = new SQLiteStudentRepository();
-            studentService = new StudentService(repo);
+            studentService = AppContext.getStudentService();
             
             // Initialize default values
             defaultProgrammes = List.of("Computer Science", "Business Administration", 
@@ -171,7 +174,14 @@ public class SettingsController {
             Files.createDirectories(Paths.get("data"));
             File settingsFile = new File("data/settings.properties");
             
+            // Start from the existing file so keys this screen does not edit
+            // (e.g. the db.* connection settings) are kept
             Properties props = new Properties();
+            if (settingsFile.exists()) {
+                try (FileInputStream fis = new FileInputStream(settingsFile)) {
+                    props.load(fis);
+                }
+            }
             props.setProperty("atRiskThreshold", String.valueOf(atRiskThreshold));
             props.setProperty("lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
             
@@ -226,6 +236,7 @@ public class SettingsController {
         
         // Database
         backupDatabaseButton.setOnAction(e -> backupDatabase());
+        restoreDatabaseButton.setOnAction(e -> restoreDatabase());
         viewLogButton.setOnAction(e -> viewLogFile());
     }
     
@@ -352,24 +363,87 @@ public class SettingsController {
     }
     
     private void backupDatabase() {
-        try {
-            Files.createDirectories(Paths.get("data/backups"));
-            
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            File source = new File("data/students.db");
-            File backup = new File("data/backups/students_backup_" + timestamp + ".db");
-
-            if (!source.exists()) {
-                showError("Error", "Database file not found");
-                return;
+        // A full backup (VACUUM INTO snapshot) or an incremental one with only the
+        // changed rows, gzipped, on a background thread; old backups are pruned
+        // by the backup.keepFull / backup.keepIncremental settings
+        Task<Path> backupTask = new Task<>() {
+            @Override
+            protected Path call() {
+                return AppContext.getBackupService().backup(fractionDone -> {
+                    updateProgress(fractionDone, 1.0);
+                    return !isCancelled();
+                });
             }
-            
-            Files.copy(source.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            showAlert("Backup Complete", "Database backed up to:\n" + backup.getAbsolutePath());
-            
-        } catch (Exception e) {
-            showError("Backup Error", "Failed to backup database: " + e.getMessage());
+        };
+
+        backupTask.setOnSucceeded(event -> {
+            finishBackup("Backup complete");
+            showAlert("Backup Complete", "Database backed up to:\n" + backupTask.getValue().toAbsolutePath());
+        });
+        backupTask.setOnFailed(event -> {
+            finishBackup("Backup failed");
+            showError("Backup Error", "Failed to backup database: " + backupTask.getException().getMessage());
+        });
+        runDatabaseTask(backupTask, "Backing up...", "database-backup");
+    }
+
+    private void restoreDatabase() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Choose Backup to Restore");
+        File backupDir = new File("data/backups");
+        if (backupDir.isDirectory()) {
+            fileChooser.setInitialDirectory(backupDir);
         }
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Backups", "*.db.gz", "*.delta.gz"));
+        File selected = fileChooser.showOpenDialog(restoreDatabaseButton.getScene().getWindow());
+        if (selected == null) return;
+
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Confirm Restore");
+        confirm.setHeaderText("Restore " + selected.getName());
+        confirm.setContentText("Every student record will be replaced with the contents of this backup. Are you sure?");
+        confirm.getButtonTypes().setAll(ButtonType.YES, ButtonType.NO);
+        if (confirm.showAndWait().orElse(ButtonType.NO) != ButtonType.YES) return;
+
+        Task<Void> restoreTask = new Task<>() {
+            @Override
+            protected Void call() {
+                AppContext.getBackupService().restore(selected.toPath());
+                return null;
+            }
+        };
+
+        restoreTask.setOnSucceeded(event -> {
+            finishBackup("Restore complete");
+            loadSettings();
+            showAlert("Restore Complete", "Database restored from:\n" + selected.getAbsolutePath());
+        });
+        restoreTask.setOnFailed(event -> {
+            finishBackup("Restore failed");
+            showError("Restore Error", "Failed to restore database: " + restoreTask.getException().getMessage());
+        });
+        runDatabaseTask(restoreTask, "Restoring...", "database-restore");
+    }
+
+    private void runDatabaseTask(Task<?> task, String status, String threadName) {
+        backupProgressBar.progressProperty().bind(task.progressProperty());
+        backupProgressBar.setVisible(true);
+        backupStatusLabel.setText(status);
+        backupDatabaseButton.setDisable(true);
+        restoreDatabaseButton.setDisable(true);
+
+        Thread worker = new Thread(task, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void finishBackup(String status) {
+        backupProgressBar.progressProperty().unbind();
+        backupProgressBar.setVisible(false);
+        backupStatusLabel.setText(status);
+        backupDatabaseButton.setDisable(false);
+        restoreDatabaseButton.setDisable(false);
     }
     
     private void viewLogFile() {
@@ -0,0 +1,104 @@
+package com.sms.ui;
+
+import com.sms.domain.Student;
+import com.sms.repository.StudentPage;
+import com.sms.repository.StudentQuery;
+import com.sms.service.StudentService;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+
+import java.util.function.Supplier;
+
+// Fills a student TableView one page at a time.
+// The first page is loaded on reload(); the next page is fetched when the
+// user scrolls down to the last loaded row, so opening a screen costs the same however
+// many students are in the database.
+// Rows always come in (full_name, student_id) order, which the page cursor
+// depends on, so the columns are not sortable: a header click would only sort
+// the pages loaded so far.
+public class StudentTablePager {
+
+    public static final int DEFAULT_PAGE_SIZE = 200;
+
+    private final TableView<Student> table;
+    private final StudentService studentService;
+    private final Supplier<StudentQuery> querySupplier;
+    private final int pageSize;
+
+    private ObservableList<Student> items = FXCollections.observableArrayList();
+    private StudentQuery currentQuery;
+    private StudentPage.Cursor nextCursor;
+    private boolean loading;
+    private boolean pageRequested;
+
+    public StudentTablePager(TableView<Student> table, StudentService studentService,
+                             Supplier<StudentQuery> querySupplier) {
+        this(table, studentService, querySupplier, DEFAULT_PAGE_SIZE);
+    }
+
+    public StudentTablePager(TableView<Student> table, StudentService studentService,
+                             Supplier<StudentQuery> querySupplier, int pageSize) {
+        this.table = table;
+        this.studentService = studentService;
+        this.querySupplier = querySupplier;
+        this.pageSize = pageSize;
+
+        table.getColumns().forEach(column -> column.setSortable(false));
+
+        // When the last loaded row becomes visible, fetch the next page.
+        // runLater keeps the items list from changing in the middle of a layout pass.
+        table.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            protected void updateItem(Student student, boolean empty) {
+                super.updateItem(student, empty);
+                if (!empty && getIndex() == tv.getItems().size() - 1) {
+                    requestNextPage();
+                }
+            }
+        });
+    }
+
+    // Start again from the first page using the current filters
+    public void reload() {
+        currentQuery = querySupplier.get();
+        items = FXCollections.observableArrayList();
+        nextCursor = null;
+        table.setItems(items);
+        appendPage(null);
+    }
+
+    // Fetch the next page, if there is one
+    public void loadNextPage() {
+        if (nextCursor != null && !loading) {
+            appendPage(nextCursor);
+        }
+    }
+
+    // Schedule at most one page load, however many rows ask for it
+    private void requestNextPage() {
+        if (pageRequested || !hasMore()) return;
+        pageRequested = true;
+        Platform.runLater(() -> {
+            pageRequested = false;
+            loadNextPage();
+        });
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    private void appendPage(StudentPage.Cursor after) {
+        loading = true;
+        try {
+            StudentPage page = studentService.findStudentsPage(currentQuery, after, pageSize);
+            items.addAll(page.getStudents());
+            nextCursor = page.getNextCursor();
+        } finally {
+            loading = false;
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package com.sms.ui;
 
 import com.sms.domain.Student;
-import com.sms.repository.SQLiteStudentRepository;
+import com.sms.repository.StudentQuery;
 import com.sms.service.StudentService;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -15,8 +14,9 @@ import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
 
 public class StudentsController {
@@ -28,6 +28,11 @@ public class StudentsController {
     @FXML private Button addStudentButton;
     @FXML private Button editStudentButton;
     @FXML private Button deleteStudentButton;
+    @FXML private MenuButton setStatusButton;
+    @FXML private MenuItem selectedActiveItem;
+    @FXML private MenuItem selectedInactiveItem;
+    @FXML private MenuItem matchingActiveItem;
+    @FXML private MenuItem matchingInactiveItem;
     @FXML private Button refreshButton;
     @FXML private Button backButton;
     @FXML private TableView<Student> studentTable;
@@ -48,15 +53,18 @@ public class StudentsController {
     @FXML private Button importExportNavButton;
     @FXML private Button settingsNavButton;
 
+    // Typeahead suggestions shown under the search field
+    private static final int SUGGESTION_LIMIT = 8;
+
     private StudentService studentService;
-    private ObservableList<Student> studentData;
+    private StudentTablePager pager;
+    private final ContextMenu suggestions = new ContextMenu();
     private Stage mainStage;
     private DashboardController dashboardController;
 
     public void initialize() {
         try {
-            SQLiteStudentRepository repo = new SQLiteStudentRepository();
-            studentService = new StudentService(repo);
+            studentService = AppContext.getStudentService();
 
             levelFilter.getItems().addAll("All", "100", "200", "300", "400", "500", "600", "700");
             levelFilter.setValue("All");
@@ -68,6 +76,7 @@ public class StudentsController {
             programmeFilter.setValue("All");
 
             setupTableColumns();
+            pager = new StudentTablePager(studentTable, studentService, this::buildQuery);
             setupButtonActions();
             setupSearchAndFilter();
             loadStudentData();
@@ -90,8 +99,8 @@ public class StudentsController {
         phoneCol.setCellValueFactory(new PropertyValueFactory<>("phoneNumber"));
         statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
         
-        fullNameCol.setSortable(true);
-        gpaCol.setSortable(true);
+        // Ctrl/Shift-click to select several students for a bulk status change
+        studentTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         
         actionsCol.setCellFactory(col -> new TableCell<>() {
             private final HBox container = new HBox(5);
@@ -118,37 +127,8 @@ public class StudentsController {
 
     private void loadStudentData() {
         try {
-            List<Student> allStudents = studentService.getAllStudents();
-            
-            String programme = programmeFilter.getValue();
-            String levelStr = levelFilter.getValue();
-            String status = statusFilter.getValue();
-            String searchTerm = searchField.getText().toLowerCase();
-            
-            List<Student> filtered = allStudents.stream()
-                .filter(student -> {
-                    if (!"All".equals(programme) && !student.getProgramme().equals(programme)) {
-                        return false;
-                    }
-                    if (!"All".equals(levelStr)) {
-                        int level = Integer.parseInt(levelStr);
-                        if (student.getLevel() != level) {
-                            return false;
-                        }
-                    }
-                    if (!"All".equals(status) && !student.getStatus().equals(status)) {
-                        return false;
-                    }
-                    if (!searchTerm.isEmpty()) {
-                        return student.getStudentId().toLowerCase().contains(searchTerm) ||
-                               student.getFullName().toLowerCase().contains(searchTerm);
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
-            
-            studentData = FXCollections.observableArrayList(filtered);
-            studentTable.setItems(studentData);
+            // Loads the first page; more pages are fetched as the user scrolls
+            pager.reload();
             
         } catch (Exception e) {
             System.err.println("Error loading student data: " + e.getMessage());
@@ -156,13 +136,61 @@ public class StudentsController {
         }
     }
 
+    // Turn the current filter controls into a query ("All" means no filter)
+    private StudentQuery buildQuery() {
+        String programme = programmeFilter.getValue();
+        String levelStr = levelFilter.getValue();
+        String status = statusFilter.getValue();
+
+        return StudentQuery.all()
+                .withProgramme("All".equals(programme) ? null : programme)
+                .withLevel(levelStr == null || "All".equals(levelStr) ? null : Integer.parseInt(levelStr))
+                .withStatus("All".equals(status) ? null : status)
+                .withSearchTerm(searchField.getText());
+    }
+
     private void setupSearchAndFilter() {
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> loadStudentData());
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
+            loadStudentData();
+            showSuggestions(newValue);
+        });
+        searchField.focusedProperty().addListener((observable, wasFocused, focused) -> {
+            if (!focused) suggestions.hide();
+        });
         programmeFilter.valueProperty().addListener((observable, oldValue, newValue) -> loadStudentData());
         levelFilter.valueProperty().addListener((observable, oldValue, newValue) -> loadStudentData());
         statusFilter.valueProperty().addListener((observable, oldValue, newValue) -> loadStudentData());
     }
 
+    // Best matches on ID, name and email from the full-text index, prefix matches
+    // first; picking one opens that student
+    private void showSuggestions(String term) {
+        if (term == null || term.trim().isEmpty() || !searchField.isFocused()) {
+            suggestions.hide();
+            return;
+        }
+        try {
+            List<MenuItem> items = new ArrayList<>();
+            for (Student student : studentService.searchStudents(term, SUGGESTION_LIMIT)) {
+                MenuItem item = new MenuItem(student.getStudentId() + " - " + student.getFullName()
+                        + " (" + student.getEmail() + ")");
+                item.setOnAction(e -> handleViewStudent(student));
+                items.add(item);
+            }
+            if (items.isEmpty()) {
+                suggestions.hide();
+                return;
+            }
+            suggestions.getItems().setAll(items);
+            if (!suggestions.isShowing()) {
+                suggestions.show(searchField, Side.BOTTOM, 0, 0);
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading search suggestions: " + e.getMessage());
+            suggestions.hide();
+        }
+    }
+
     private void setupButtonActions() {
         backButton.setOnAction(e -> navigateToDashboard());
         dashboardNavButton.setOnAction(e -> navigateToDashboard());
@@ -174,6 +202,10 @@ public class StudentsController {
         addStudentButton.setOnAction(e -> handleAddStudent());
         editStudentButton.setOnAction(e -> handleEditSelectedStudent());
         deleteStudentButton.setOnAction(e -> handleDeleteStudent());
+        selectedActiveItem.setOnAction(e -> handleSetSelectedStatus("Active"));
+        selectedInactiveItem.setOnAction(e -> handleSetSelectedStatus("Inactive"));
+        matchingActiveItem.setOnAction(e -> handleSetMatchingStatus("Active"));
+        matchingInactiveItem.setOnAction(e -> handleSetMatchingStatus("Inactive"));
         refreshButton.setOnAction(e -> loadStudentData());
     }
 
@@ -300,35 +332,27 @@ public class StudentsController {
 
     @FXML
     private void handleDeleteStudent() {
-        Student selected = studentTable.getSelectionModel().getSelectedItem();
-        if (selected == null) {
+        List<Student> selected = studentTable.getSelectionModel().getSelectedItems();
+        if (selected.isEmpty()) {
             showError("Selection Error", "Please select a student to delete");
             return;
         }
 
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
         confirm.setTitle("Confirm Delete");
-        confirm.setHeaderText("Delete Student: " + selected.getFullName());
-        confirm.setContentText("This will mark the student as 'Inactive' (soft delete). Are you sure?");
+        confirm.setHeaderText(selected.size() == 1
+                ? "Delete Student: " + selected.get(0).getFullName()
+                : "Delete " + selected.size() + " Students");
+        confirm.setContentText("This will mark the selected students as 'Inactive' (soft delete). Are you sure?");
         confirm.getButtonTypes().setAll(ButtonType.YES, ButtonType.NO);
 
+        List<String> ids = selectedIds();
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.YES) {
                 try {
-                    // Soft delete - update status to Inactive
-                    Student inactiveStudent = new Student(
-                            selected.getStudentId(),
-                            selected.getFullName(),
-                            selected.getProgramme(),
-                            selected.getLevel(),
-                            selected.getGpa(),
-                            selected.getEmail(),
-                            selected.getPhoneNumber(),
-                            selected.getDateAdded(),
-                            "Inactive"
-                    );
-                    studentService.updateStudent(inactiveStudent);
-                    showAlert("Success", "Student marked as Inactive");
+                    // Soft delete - update status to Inactive, all in one transaction
+                    int changed = studentService.setStatus(ids, "Inactive");
+                    showAlert("Success", changed + " student(s) marked as Inactive");
                     loadStudentData();
                 } catch (Exception e) {
                     System.err.println("Error deleting student: " + e.getMessage());
@@ -339,6 +363,57 @@ public class StudentsController {
         });
     }
 
+    private void handleSetSelectedStatus(String status) {
+        List<String> ids = selectedIds();
+        if (ids.isEmpty()) {
+            showError("Selection Error", "Please select one or more students");
+            return;
+        }
+        if (confirmStatusChange(ids.size() + " selected student(s)", status)) {
+            applyStatusChange(() -> studentService.setStatus(ids, status), status);
+        }
+    }
+
+    private void handleSetMatchingStatus(String status) {
+        StudentQuery query = buildQuery();
+        // Count only the rows the UPDATE will change, not those already at the status
+        int matching = studentService.countStudents(query.copy().withStatusNot(status));
+        if (matching == 0) {
+            showError("No Students", "No students matching the current filters need to be marked as " + status);
+            return;
+        }
+        if (confirmStatusChange(matching + " student(s) matching the current filters", status)) {
+            applyStatusChange(() -> studentService.setStatusWhere(query, status), status);
+        }
+    }
+
+    private boolean confirmStatusChange(String who, String status) {
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Confirm Status Change");
+        confirm.setHeaderText("Set status to " + status);
+        confirm.setContentText("This will mark " + who + " as '" + status + "'. Are you sure?");
+        confirm.getButtonTypes().setAll(ButtonType.YES, ButtonType.NO);
+        return confirm.showAndWait().orElse(ButtonType.NO) == ButtonType.YES;
+    }
+
+    private void applyStatusChange(IntSupplier change, String status) {
+        try {
+            int changed = change.getAsInt();
+            showAlert("Success", changed + " student(s) marked as " + status);
+            loadStudentData();
+        } catch (Exception e) {
+            System.err.println("Error changing student status: " + e.getMessage());
+            e.printStackTrace();
+            showError("Status Error", "Failed to change student status: " + e.getMessage());
+        }
+    }
+
+    private List<String> selectedIds() {
+        return studentTable.getSelectionModel().getSelectedItems().stream()
+                .map(Student::getStudentId)
+                .collect(Collectors.toList());
+    }
+
     @FXML
     private void handleViewStudent(Student student) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
@@ -0,0 +1,75 @@
+package com.sms.repository;
+
+import com.sms.domain.Student;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingStudentRepositoryTest {
+
+    private Path dbFile;
+    private CachingStudentRepository repository;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dbFile = Files.createTempFile("caching_test", ".db");
+        repository = new CachingStudentRepository(new SQLiteStudentRepository("jdbc:sqlite:" + dbFile), 2);
+        for (String id : List.of("CACHE001", "CACHE002", "CACHE003")) {
+            repository.addStudent(new Student(id, "Cached Student", "Physics", 100, 3.0,
+                    "cache@example.com", "0244000000", LocalDateTime.now(), "Active"));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        repository.close();
+        Files.deleteIfExists(dbFile);
+    }
+
+    @Test
+    @DisplayName("Test repeated lookups are served from the cache")
+    public void testHitsAndMisses() {
+        repository.findStudentById("CACHE001");
+        repository.findStudentById("CACHE001");
+        assertTrue(repository.existsById("CACHE001"));
+
+        assertEquals(1, repository.getMisses());
+        assertEquals(2, repository.getHits());
+
+        // existsById counts its misses too, and caches a student it finds
+        assertFalse(repository.existsById("NOSUCH01"));
+        assertTrue(repository.existsById("CACHE002"));
+        assertNotNull(repository.findStudentById("CACHE002"));
+        assertEquals(3, repository.getMisses());
+        assertEquals(3, repository.getHits());
+
+        // Callers get a copy - changing it does not change the cached student
+        repository.findStudentById("CACHE001").setFullName("Changed Locally");
+        assertEquals("Cached Student", repository.findStudentById("CACHE001").getFullName());
+    }
+
+    @Test
+    @DisplayName("Test writes invalidate and the least recently used entry is evicted")
+    public void testInvalidationAndEviction() {
+        Student student = repository.findStudentById("CACHE001");
+        student.setGpa(3.5);
+        repository.updateStudent(student);
+        assertEquals(3.5, repository.findStudentById("CACHE001").getGpa());
+
+        repository.setStatus(List.of("CACHE001"), "Inactive");
+        assertEquals("Inactive", repository.findStudentById("CACHE001").getStatus());
+
+        repository.findStudentById("CACHE002");
+        repository.findStudentById("CACHE003");
+        assertEquals(2, repository.size());
+        assertEquals(1, repository.getEvictions());
+
+        repository.setStatusWhere(StudentQuery.all(), "Active");
+        assertEquals(0, repository.size());
+    }
+}
@@ -0,0 +1,85 @@
+package com.sms.repository;
+
+import com.sms.domain.Student;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compares SQLite connection profiles on the two workloads that matter here:
+//  - import: bulk chunks (one transaction each) plus single-row adds (one commit each)
+//  - reports: the GROUP BY / ORDER BY queries behind the Reports screen
+// Each profile gets a fresh database file. Not a unit test (surefire skips it) -
+// run main() by hand on the test classpath; results depend heavily on the disk.
+public class ConnectionProfileBenchmark {
+
+    private static final int BULK_ROWS = 50_000;
+    private static final int CHUNK_SIZE = 5_000;
+    private static final int SINGLE_ROW_ADDS = 300;
+    private static final int REPORT_ROUNDS = 50;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, SQLiteConnectionProfile> profiles = new LinkedHashMap<>();
+        profiles.put("legacy (DELETE/FULL)", SQLiteConnectionProfile.legacy());
+        profiles.put("WAL/FULL", new SQLiteConnectionProfile("WAL", "FULL", 16 * 1024, 64L * 1024 * 1024, "MEMORY", 5000));
+        profiles.put("WAL/NORMAL (default)", SQLiteConnectionProfile.defaults());
+
+        System.out.printf("%-22s %12s %14s %12s%n", "profile", "bulk rows/s", "single add ms", "report ms");
+        for (Map.Entry<String, SQLiteConnectionProfile> entry : profiles.entrySet()) {
+            run(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static void run(String name, SQLiteConnectionProfile profile) throws Exception {
+        Path dbFile = Files.createTempFile("profile_benchmark", ".db");
+        try (SQLiteStudentRepository repository = new SQLiteStudentRepository("jdbc:sqlite:" + dbFile, profile)) {
+            List<Student> students = generateStudents(0, BULK_ROWS);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < students.size(); i += CHUNK_SIZE) {
+                repository.addStudents(students.subList(i, Math.min(i + CHUNK_SIZE, students.size())));
+            }
+            double bulkSeconds = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            for (Student student : generateStudents(BULK_ROWS, SINGLE_ROW_ADDS)) {
+                repository.addStudent(student);
+            }
+            double singleMillis = (System.nanoTime() - start) / 1e6 / SINGLE_ROW_ADDS;
+
+            StudentQuery active = StudentQuery.all().withStatus("Active");
+            StudentQuery top = StudentQuery.all().withStatus("Active")
+                    .sortBy(StudentQuery.SortField.GPA, false).withLimit(10);
+            start = System.nanoTime();
+            for (int i = 0; i < REPORT_ROUNDS; i++) {
+                repository.countGpaBands(active);
+                repository.aggregateByProgramme(active);
+                repository.findStudents(top);
+            }
+            double reportMillis = (System.nanoTime() - start) / 1e6 / REPORT_ROUNDS;
+
+            System.out.printf("%-22s %12.0f %14.3f %12.2f%n",
+                    name, BULK_ROWS / bulkSeconds, singleMillis, reportMillis);
+        } finally {
+            Files.deleteIfExists(dbFile);
+            Files.deleteIfExists(Path.of(dbFile + "-wal"));
+            Files.deleteIfExists(Path.of(dbFile + "-shm"));
+        }
+    }
+
+    private static List<Student> generateStudents(int first, int count) {
+        String[] programmes = {"Computer Science", "Information Technology", "Mathematics", "Physics"};
+        List<Student> students = new ArrayList<>(count);
+        LocalDateTime added = LocalDateTime.of(2025, 1, 1, 9, 0);
+        for (int i = first; i < first + count; i++) {
+            students.add(new Student(String.format("PB%07d", i), "Student " + i, programmes[i % programmes.length],
+                    100 * (1 + i % 7), (i % 401) / 100.0, "student" + i + "@example.com",
+                    String.format("0244%06d", i), added.plusMinutes(i), i % 5 == 0 ? "Inactive" : "Active"));
+        }
+        return students;
+    }
+}
@@ -0,0 +1,129 @@
+package com.sms.repository;
+
+import com.sms.domain.Student;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadConnectionPoolTest {
+
+    private static final int IMPORT_SIZE = 5_000;
+
+    private Path dbFile;
+    private String url;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dbFile = Files.createTempFile("pool_test", ".db");
+        url = "jdbc:sqlite:" + dbFile;
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+
+    @Test
+    @DisplayName("Test reports keep running while a long import is writing")
+    public void testReadsDuringImport() {
+        try (SQLiteStudentRepository repository = new SQLiteStudentRepository(url)) {
+            List<Student> students = new ArrayList<>(IMPORT_SIZE);
+            for (int i = 0; i < IMPORT_SIZE; i++) {
+                students.add(new Student(String.format("POOL%05d", i), "Pool Student " + i, "Physics", 100,
+                        2.5, "pool@example.com", "0244000000", LocalDateTime.now(), "Active"));
+            }
+
+            CompletableFuture<Void> importing = CompletableFuture.runAsync(() -> repository.addStudents(students));
+            int reads = 0;
+            while (!importing.isDone()) {
+                // One transaction: a reader sees none of the import or all of it, never SQLITE_BUSY
+                int count = repository.countStudents(new StudentQuery());
+                assertTrue(count == 0 || count == IMPORT_SIZE, "Saw a partial import: " + count);
+                repository.aggregateByProgramme(new StudentQuery());
+                reads++;
+            }
+            importing.join();
+
+            assertEquals(IMPORT_SIZE, repository.countStudents(new StudentQuery()));
+            System.out.println(" " + reads + " reports ran during the import");
+        }
+    }
+
+    @Test
+    @DisplayName("Test reads in a snapshot don't see writes committed while it runs")
+    public void testReadSnapshot() {
+        try (SQLiteStudentRepository repository = new SQLiteStudentRepository(url)) {
+            repository.addStudent(new Student("POOL00001", "Pool Student", "Physics", 100, 2.5,
+                    "pool@example.com", "0244000000", LocalDateTime.now(), "Active"));
+
+            int[] counts = repository.readSnapshot(() -> {
+                int before = repository.countStudents(new StudentQuery());
+                repository.addStudent(new Student("POOL00002", "Pool Student", "Physics", 100, 3.5,
+                        "pool@example.com", "0244000000", LocalDateTime.now(), "Active"));
+                long streamed;
+                try (Stream<Student> stream = repository.streamStudents(new StudentQuery())) {
+                    streamed = stream.count();
+                }
+                return new int[] {before, repository.countStudents(new StudentQuery()), (int) streamed};
+            });
+
+            assertArrayEquals(new int[] {1, 1, 1}, counts);
+            assertEquals(2, repository.countStudents(new StudentQuery()));
+        }
+    }
+
+    @Test
+    @DisplayName("Test pooled connections are read-only and streams give theirs back")
+    public void testReadOnlyAndRelease() throws Exception {
+        SQLiteConnectionProfile oneReader = new SQLiteConnectionProfile("WAL", "NORMAL", 2048, 0, "MEMORY", 5000, 1);
+        try (SQLiteStudentRepository repository = new SQLiteStudentRepository(url, oneReader)) {
+            repository.addStudent(new Student("POOL00001", "Pool Student", "Physics", 100, 2.5,
+                    "pool@example.com", "0244000000", LocalDateTime.now(), "Active"));
+
+            // With a single reader, a stream that kept its connection would make the count wait
+            for (int i = 0; i < 3; i++) {
+                try (Stream<Student> stream = repository.streamStudents(new StudentQuery())) {
+                    assertEquals(1, stream.count());
+                }
+            }
+            assertEquals(1, repository.countStudents(new StudentQuery()));
+        }
+
+        // Without a pool a stream opens its own read-only connection, so the writer
+        // connection stays free for writes while the stream is open
+        SQLiteConnectionProfile noPool = new SQLiteConnectionProfile("WAL", "NORMAL", 2048, 0, "MEMORY", 5000, 0);
+        try (SQLiteStudentRepository repository = new SQLiteStudentRepository(url, noPool);
+             Stream<Student> stream = repository.streamStudents(new StudentQuery())) {
+            var rows = stream.iterator();
+            assertTrue(rows.hasNext());
+            repository.addStudent(new Student("POOL00002", "Pool Student", "Physics", 100, 2.5,
+                    "pool@example.com", "0244000000", LocalDateTime.now(), "Active"));
+            assertEquals("POOL00001", rows.next().getStudentId());
+            assertFalse(rows.hasNext()); // Still reading the snapshot from before the insert
+            assertEquals(2, repository.countStudents(new StudentQuery()));
+        }
+
+        try (ReadConnectionPool pool = new ReadConnectionPool(url, SQLiteConnectionProfile.defaults(), 2)) {
+            ReadConnectionPool.Lease lease = pool.acquire();
+            assertEquals(1, pool.idleCount());
+            try (Statement stmt = lease.connection.createStatement()) {
+                assertThrows(SQLException.class, () -> stmt.executeUpdate("DELETE FROM students"));
+            } finally {
+                pool.release(lease);
+            }
+            assertEquals(2, pool.idleCount());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.sms.repository;
+
+import com.sms.domain.Student;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Compares the old and new ways of reading students:
+//  - per row:  column lookup by name vs StudentRowMapper (fixed positions)
+//  - per call: prepareStatement() on every call vs StatementCache
+// Not a unit test (surefire skips it) - run main() by hand on the test classpath.
+public class RowMappingBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int LOOKUPS = 20_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private static final String SELECT_ALL = "SELECT " + StudentRowMapper.COLUMNS + " FROM students";
+    private static final String SELECT_BY_ID = SELECT_ALL + " WHERE student_id = ?";
+
+    public static void main(String[] args) throws Exception {
+        Path dbFile = Files.createTempFile("row_mapping_benchmark", ".db");
+        try {
+            String url = "jdbc:sqlite:" + dbFile;
+            try (SQLiteStudentRepository repository = new SQLiteStudentRepository(url)) {
+                repository.addStudents(generateStudents());
+            }
+
+            try (Connection connection = DriverManager.getConnection(url);
+                 StatementCache cache = new StatementCache(connection, StatementCache.DEFAULT_MAX_SIZE)) {
+                double byName = measure(() -> scanByName(connection));
+                double byIndex = measure(() -> scanByIndex(connection));
+                System.out.printf("Per row  : by name %.0f ns, by index %.0f ns (%.1fx)%n",
+                        byName / ROWS, byIndex / ROWS, byName / byIndex);
+
+                double prepareEachCall = measure(() -> lookups(connection, null));
+                double cached = measure(() -> lookups(connection, cache));
+                System.out.printf("Per call : prepare each time %.1f us, cached %.1f us (%.1fx)%n",
+                        prepareEachCall / LOOKUPS / 1000, cached / LOOKUPS / 1000, prepareEachCall / cached);
+            }
+        } finally {
+            Files.deleteIfExists(dbFile);
+        }
+    }
+
+    private interface Workload {
+        long run() throws SQLException;
+    }
+
+    // Median nanoseconds per round, after warming up the JIT
+    private static double measure(Workload workload) throws SQLException {
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            checksum += workload.run();
+        }
+        long[] times = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            checksum += workload.run();
+            times[i] = System.nanoTime() - start;
+        }
+        if (checksum == 42) System.out.print(""); // Keep the results alive
+        Arrays.sort(times);
+        return times[MEASURED_ROUNDS / 2];
+    }
+
+    // The mapping every read method used to repeat
+    private static long scanByName(Connection connection) throws SQLException {
+        long levels = 0;
+        try (PreparedStatement pstmt = connection.prepareStatement(SELECT_ALL);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                Student student = new Student(
+                        rs.getString("student_id"),
+                        rs.getString("full_name"),
+                        rs.getString("programme"),
+                        rs.getInt("level"),
+                        rs.getDouble("gpa"),
+                        rs.getString("email"),
+                        rs.getString("phone_number"),
+                        StudentRowMapper.fromEpochMillis(rs.getLong("date_added")),
+                        rs.getString("status")
+                );
+                levels += student.getLevel();
+            }
+        }
+        return levels;
+    }
+
+    private static long scanByIndex(Connection connection) throws SQLException {
+        long levels = 0;
+        try (PreparedStatement pstmt = connection.prepareStatement(SELECT_ALL);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                levels += StudentRowMapper.map(rs).getLevel();
+            }
+        }
+        return levels;
+    }
+
+    // Single-row lookups; a null cache prepares the statement on every call
+    private static long lookups(Connection connection, StatementCache cache) throws SQLException {
+        long found = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            String id = studentId(i % ROWS);
+            PreparedStatement pstmt = cache == null
+                    ? connection.prepareStatement(SELECT_BY_ID)
+                    : cache.prepare(SELECT_BY_ID);
+            try {
+                pstmt.setString(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) found++;
+                }
+            } finally {
+                if (cache == null) pstmt.close();
+            }
+        }
+        return found;
+    }
+
+    private static List<Student> generateStudents() {
+        String[] programmes = {"Computer Science", "Information Technology", "Mathematics", "Physics"};
+        List<Student> students = new ArrayList<>(ROWS);
+        LocalDateTime added = LocalDateTime.of(2025, 1, 1, 9, 0);
+        for (int i = 0; i < ROWS; i++) {
+            students.add(new Student(studentId(i), "Student " + i, programmes[i % programmes.length],
+                    100 * (1 + i % 7), (i % 401) / 100.0, "student" + i + "@example.com",
+                    String.format("0244%06d", i), added.plusMinutes(i), i % 5 == 0 ? "Inactive" : "Active"));
+        }
+        return students;
+    }
+
+    private static String studentId(int i) {
+        return String.format("BM%07d", i);
+    }
+}
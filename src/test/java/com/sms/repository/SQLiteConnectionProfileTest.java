@@ -0,0 +1,56 @@
+package com.sms.repository;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SQLiteConnectionProfileTest {
+
+    @Test
+    @DisplayName("Test settings override the defaults and bad values are rejected")
+    public void testFromProperties() {
+        Properties props = new Properties();
+        props.setProperty(SQLiteConnectionProfile.SYNCHRONOUS_KEY, "full");
+        props.setProperty(SQLiteConnectionProfile.CACHE_SIZE_KB_KEY, "8192");
+
+        SQLiteConnectionProfile profile = SQLiteConnectionProfile.fromProperties(props);
+        assertEquals("WAL", profile.getJournalMode());
+        assertEquals("FULL", profile.getSynchronous());
+        assertEquals(8192, profile.getCacheSizeKb());
+
+        props.setProperty(SQLiteConnectionProfile.JOURNAL_MODE_KEY, "WAL; DROP TABLE students");
+        assertThrows(IllegalArgumentException.class, () -> SQLiteConnectionProfile.fromProperties(props));
+    }
+
+    @Test
+    @DisplayName("Test the profile is applied to a file database")
+    public void testApply() throws Exception {
+        Path dbFile = Files.createTempFile("profile_test", ".db");
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile)) {
+            SQLiteConnectionProfile.defaults().apply(connection);
+
+            assertEquals("wal", pragma(connection, "journal_mode"));
+            assertEquals("1", pragma(connection, "synchronous")); // NORMAL
+            assertEquals("5000", pragma(connection, "busy_timeout"));
+        } finally {
+            Files.deleteIfExists(dbFile);
+            Files.deleteIfExists(Path.of(dbFile + "-wal"));
+            Files.deleteIfExists(Path.of(dbFile + "-shm"));
+        }
+    }
+
+    private String pragma(Connection connection, String name) throws Exception {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + name)) {
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.sms.repository;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaMigratorTest {
+
+    private Path dbFile;
+    private Connection connection;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dbFile = Files.createTempFile("migrator_test", ".db");
+        connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        connection.close();
+        Files.deleteIfExists(dbFile);
+    }
+
+    @Test
+    @DisplayName("Test new database is created at the latest version")
+    public void testMigrateNewDatabase() throws Exception {
+        SchemaMigrator migrator = new SchemaMigrator(connection);
+        migrator.migrate();
+
+        assertEquals(SchemaMigrator.latestVersion(), migrator.getCurrentVersion());
+        assertTrue(indexExists("idx_students_status_gpa"));
+        assertTrue(indexExists("idx_students_active_programme_level_gpa"));
+    }
+
+    @Test
+    @DisplayName("Test existing unversioned database is upgraded in place")
+    public void testMigrateExistingDatabase() throws Exception {
+        // A database created before migrations existed (user_version = 0)
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE students (
+                    student_id TEXT PRIMARY KEY, full_name TEXT NOT NULL, programme TEXT NOT NULL,
+                    level INTEGER NOT NULL, gpa REAL NOT NULL, email TEXT NOT NULL,
+                    phone_number TEXT NOT NULL, date_added TEXT NOT NULL, status TEXT NOT NULL)
+                """);
+            stmt.execute("INSERT INTO students VALUES ('OLD0001', 'Old Row', 'Physics', 100, 3.0, "
+                    + "'old@example.com', '0244000000', '2024-01-01T10:00', 'Active')");
+        }
+
+        SchemaMigrator migrator = new SchemaMigrator(connection);
+        migrator.migrate();
+        migrator.migrate(); // Running again is a no-op
+
+        assertEquals(SchemaMigrator.latestVersion(), migrator.getCurrentVersion());
+        assertTrue(indexExists("idx_students_full_name"));
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM students")) {
+            assertEquals(1, rs.getInt(1));
+        }
+        // ISO date text is converted to epoch milliseconds
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT date_added, typeof(date_added) FROM students")) {
+            assertEquals(1704103200000L, rs.getLong(1));
+            assertEquals("integer", rs.getString(2));
+        }
+        // Rows that existed before the upgrade are in the full-text index
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT COUNT(*) FROM students_fts WHERE students_fts MATCH '\"ld ro\"'")) {
+            assertEquals(1, rs.getInt(1));
+        }
+        // ...and counted in the running aggregates
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT student_count, sum_gpa FROM student_aggregates WHERE programme = 'Physics'")) {
+            assertEquals(1, rs.getInt(1));
+            assertEquals(3.0, rs.getDouble(2));
+        }
+    }
+
+    private boolean indexExists(String name) throws Exception {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT 1 FROM sqlite_master WHERE type = 'index' AND name = '" + name + "'")) {
+            return rs.next();
+        }
+    }
+}
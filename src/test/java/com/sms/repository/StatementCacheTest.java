@@ -0,0 +1,46 @@
+package com.sms.repository;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementCacheTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Test statements are reused and the least recently used is closed")
+    public void testReuseAndEviction() throws Exception {
+        // Closed explicitly below (that is part of what is tested); anything left
+        // open if an assertion fails goes with the connection in tearDown()
+        StatementCache cache = new StatementCache(connection, 2);
+        PreparedStatement one = cache.prepare("SELECT 1");
+        PreparedStatement two = cache.prepare("SELECT 2");
+        assertSame(one, cache.prepare("SELECT 1"));
+        assertEquals(1, cache.getHits());
+
+        // "SELECT 2" is now the least recently used
+        cache.prepare("SELECT 3");
+        assertEquals(2, cache.size());
+        assertTrue(two.isClosed());
+        assertFalse(one.isClosed());
+
+        cache.close();
+        assertTrue(one.isClosed());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,144 @@
+package com.sms.service;
+
+import com.sms.domain.Student;
+import com.sms.repository.SQLiteStudentRepository;
+import com.sms.repository.StudentQuery;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BackupServiceTest {
+
+    private Path workDir;
+    private Path backupDir;
+    private SQLiteStudentRepository repository;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        workDir = Files.createTempDirectory("backup_service_test");
+        backupDir = workDir.resolve("backups");
+        repository = new SQLiteStudentRepository("jdbc:sqlite:" + workDir.resolve("students.db"));
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            students.add(student(String.format("BAK%04d", i), 3.0));
+        }
+        repository.addStudents(students);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        repository.close();
+        try (Stream<Path> files = Files.walk(workDir)) {
+            for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test an incremental backup holds only the changes and restores exactly")
+    public void testIncrementalBackupAndRestore() throws Exception {
+        BackupService backups = new BackupService(repository, backupDir, 2, 5);
+        Path full = backups.backup(fractionDone -> true);
+        assertTrue(full.getFileName().toString().startsWith("students_full_"));
+        // Pruning the journal up to what the backups need leaves deltas working
+        assertEquals(repository.getLatestChangeSeq(), backups.oldestNeededChangeSeq());
+        assertEquals(1999, repository.deleteChangesBefore(backups.oldestNeededChangeSeq()));
+
+        repository.updateStudent(student("BAK0001", 1.5));
+        repository.addStudent(student("BAK9999", 2.0));
+        repository.hardDeleteStudent("BAK0002");
+        Path delta = backups.backup(fractionDone -> true);
+        assertTrue(delta.getFileName().toString().startsWith("students_incr_"));
+        assertEquals(3, BackupService.rowsIn(delta));
+        assertTrue(Files.size(delta) < Files.size(full) / 10, "Delta should only hold the changed rows");
+
+        // Changes after the backup are undone by restoring it
+        repository.setStatusWhere(new StudentQuery(), "Inactive");
+        repository.addStudent(student("BAK8888", 2.0));
+        backups.restore(delta);
+
+        assertEquals(2000, repository.countStudents(new StudentQuery()));
+        assertEquals(2000, repository.countStudents(new StudentQuery().withStatus("Active")));
+        assertEquals(1.5, repository.findStudentById("BAK0001").getGpa());
+        assertNotNull(repository.findStudentById("BAK9999"));
+        assertNull(repository.findStudentById("BAK0002"));
+        assertNull(repository.findStudentById("BAK8888"));
+        // The full-text index is rebuilt for the restored rows
+        assertEquals(1, repository.searchStudents("BAK9999", 10).size());
+
+        // Replaying the delta left no journal entries behind, and the restored state
+        // is the base of the next incremental, which therefore holds nothing
+        assertEquals(2000, repository.getLatestChangeSeq());
+        Path afterRestore = backups.createIncrementalBackup();
+        assertEquals(0, BackupService.rowsIn(afterRestore));
+
+        // The full backup on its own goes back to before the changes
+        backups.restore(full);
+        assertEquals(3.0, repository.findStudentById("BAK0001").getGpa());
+        assertNotNull(repository.findStudentById("BAK0002"));
+
+        // Restoring copies pages into the open database, which stays in WAL mode
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + workDir.resolve("students.db"));
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA journal_mode")) {
+            assertEquals("wal", rs.getString(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Test restoring an older full backup makes the next backup a full one")
+    public void testBackupAfterRestoreStartsFull() throws Exception {
+        BackupService backups = new BackupService(repository, backupDir, 2, 5);
+        Path older = backups.createFullBackup(fractionDone -> true);
+        repository.updateStudent(student("BAK0001", 1.5));
+        backups.createFullBackup(fractionDone -> true);
+
+        // The restored journal ends before the newest full backup, so no delta can build on it
+        backups.restore(older);
+        repository.updateStudent(student("BAK0003", 2.5));
+        Path next = backups.backup(fractionDone -> true);
+        assertTrue(next.getFileName().toString().startsWith("students_full_"));
+
+        // Deltas build on the new full backup again
+        repository.updateStudent(student("BAK0004", 2.0));
+        Path delta = backups.backup(fractionDone -> true);
+        assertTrue(delta.getFileName().toString().startsWith("students_incr_"));
+        repository.updateStudent(student("BAK0004", 1.0));
+        backups.restore(delta);
+        assertEquals(3.0, repository.findStudentById("BAK0001").getGpa());
+        assertEquals(2.5, repository.findStudentById("BAK0003").getGpa());
+        assertEquals(2.0, repository.findStudentById("BAK0004").getGpa());
+    }
+
+    @Test
+    @DisplayName("Test retention keeps the newest full and incremental backups")
+    public void testRetention() throws Exception {
+        BackupService backups = new BackupService(repository, backupDir, 1, 1);
+        Path firstFull = backups.backup(fractionDone -> true);
+        Path firstDelta = backups.backup(fractionDone -> true);
+        // One incremental allowed per full backup, so the next one starts a new full backup
+        Path secondFull = backups.backup(fractionDone -> true);
+
+        assertTrue(secondFull.getFileName().toString().startsWith("students_full_"));
+        assertFalse(Files.exists(firstFull));
+        assertFalse(Files.exists(firstDelta)); // its full backup is gone
+        assertEquals(List.of(secondFull), backups.listBackups());
+    }
+
+    private Student student(String studentId, double gpa) {
+        return new Student(studentId, "Backup Student " + studentId, "Physics", 100, gpa,
+                "backup@example.com", "0244000000", LocalDateTime.of(2026, 1, 15, 9, 30, 0, 123_000_000), "Active");
+    }
+}
@@ -2,9 +2,22 @@ package com.sms.service;
 
 import com.sms.domain.Student;
 import com.sms.repository.SQLiteStudentRepository;
+import com.sms.repository.StudentAggregate;
+import com.sms.repository.StudentChange;
+import com.sms.repository.StudentPage;
+import com.sms.repository.StudentQuery;
 import org.junit.jupiter.api.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -13,15 +26,31 @@ public class StudentServiceTest {
 
     private static StudentService studentService;
     private static SQLiteStudentRepository repository;
+    private static Path workDir;
+    private static String databaseUrl;
 
     // Test data - use unique IDs with timestamp to avoid conflicts
     private static final String TEST_ID_PREFIX = "UTEST" + System.currentTimeMillis() % 10000;
     private static String testId1, testId2, testId3, testId4, testId5, findTestId;
+    private static String batchId1, batchId2, importId1, queryId1;
 
     @BeforeAll
-    public static void setUp() {
-        repository = new SQLiteStudentRepository();
+    public static void setUp() throws IOException {
+        // A database of its own: writes to data/students.db would also leave
+        // permanent entries in its change journal, and so in the next export
+        workDir = Files.createTempDirectory("student_service_test");
+        databaseUrl = "jdbc:sqlite:" + workDir.resolve("students.db");
+        repository = new SQLiteStudentRepository(databaseUrl);
         studentService = new StudentService(repository);
+        repository.addStudents(List.of(
+                new Student("SEED001", "Ama Mensah", "Computer Science", 100, 3.6,
+                        "ama@example.com", "0244100001", LocalDateTime.of(2025, 9, 1, 8, 0), "Active"),
+                new Student("SEED002", "Kofi Boateng", "Mathematics", 200, 2.4,
+                        "kofi@example.com", "0244100002", LocalDateTime.of(2025, 9, 1, 8, 5), "Active"),
+                new Student("SEED003", "Esi Owusu", "Physics", 300, 1.7,
+                        "esi@example.com", "0244100003", LocalDateTime.of(2025, 9, 1, 8, 10), "Active"),
+                new Student("SEED004", "Yaw Asante", "Physics", 400, 3.1,
+                        "yaw@example.com", "0244100004", LocalDateTime.of(2025, 9, 1, 8, 15), "Inactive")));
 
         // Generate unique test IDs
         testId1 = TEST_ID_PREFIX + "001";
@@ -30,6 +59,10 @@ public class StudentServiceTest {
         testId4 = TEST_ID_PREFIX + "004";
         testId5 = TEST_ID_PREFIX + "005";
         findTestId = TEST_ID_PREFIX + "FIND";
+        batchId1 = TEST_ID_PREFIX + "B01";
+        batchId2 = TEST_ID_PREFIX + "B02";
+        importId1 = TEST_ID_PREFIX + "IMP1";
+        queryId1 = TEST_ID_PREFIX + "QRY1";
 
         // Clean up any leftover test data from previous runs
         cleanupTestData();
@@ -50,6 +83,10 @@ public class StudentServiceTest {
             repository.hardDeleteStudent(testId4);
             repository.hardDeleteStudent(testId5);
             repository.hardDeleteStudent(findTestId);
+            repository.hardDeleteStudent(batchId1);
+            repository.hardDeleteStudent(batchId2);
+            repository.hardDeleteStudent(importId1);
+            repository.hardDeleteStudent(queryId1);
         } catch (Exception e) {
             // Ignore cleanup errors
         }
@@ -191,6 +228,7 @@ public class StudentServiceTest {
     @DisplayName("Test find student by ID")
     public void testFindStudentById() {
         // Add a test student first
+        LocalDateTime dateAdded = LocalDateTime.of(2025, 3, 30, 1, 30, 15, 123_456_789);
         Student testStudent = new Student(
                 findTestId,
                 "Find Me",
@@ -199,7 +237,7 @@ public class StudentServiceTest {
                 3.5,
                 "find@example.com",
                 "0244567890",
-                LocalDateTime.now(),
+                dateAdded,
                 "Active"
         );
         studentService.addStudent(testStudent);
@@ -207,6 +245,8 @@ public class StudentServiceTest {
         Student found = studentService.findStudentById(findTestId);
         assertNotNull(found);
         assertEquals(findTestId, found.getStudentId());
+        // date_added is stored as epoch milliseconds
+        assertEquals(dateAdded.withNano(123_000_000), found.getDateAdded());
 
         // Cleanup
         repository.hardDeleteStudent(findTestId);
@@ -251,9 +291,486 @@ public class StudentServiceTest {
         assertFalse(summary.isEmpty());
     }
 
+    @Test
+    @Order(13)
+    @DisplayName("Test batch insert of students")
+    public void testAddStudentsBatch() {
+        Student first = new Student(batchId1, "Batch One", "Physics", 100, 2.5,
+                "batch1@example.com", "0244000001", LocalDateTime.now(), "Active");
+        Student second = new Student(batchId2, "Batch Two", "Physics", 200, 3.1,
+                "batch2@example.com", "0244000002", LocalDateTime.now(), "Active");
+
+        repository.setBatchSize(1); // Force more than one executeBatch() call
+        try {
+            repository.addStudents(List.of(first, second));
+        } finally {
+            repository.setBatchSize(SQLiteStudentRepository.DEFAULT_BATCH_SIZE);
+        }
+
+        assertNotNull(repository.findStudentById(batchId1));
+        assertNotNull(repository.findStudentById(batchId2));
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Test CSV import reports duplicates, invalid rows and rate")
+    public void testImportStudentsFromCsv() throws IOException {
+        Path csv = Files.createTempFile("students_import", ".csv");
+        try {
+            Files.writeString(csv,
+                    "Student ID,Full Name,Programme,Level,GPA,Email,Phone,Date Added,Status\n" +
+                    importId1 + ",Import Me,Mathematics,300,3.3,imp@example.com,0244111111,2026-02-20T12:00:00,Active\n" +
+                    importId1 + ",Import Again,Mathematics,300,3.3,imp@example.com,0244111111,2026-02-20T12:00:00,Active\n" +
+                    "BAD,Bad Row,Mathematics,150,3.3,imp@example.com,0244111111,2026-02-20T12:00:00,Active\n");
+
+            StudentService.ImportResult result = studentService.importStudentsFromCsv(csv.toString());
+
+            assertEquals(1, result.getSuccessCount());
+            assertEquals(2, result.getErrorCount());
+            assertTrue(result.getRowsPerSecond() >= 0);
+            assertNotNull(studentService.findStudentById(importId1));
+            // The invalid row is reported with every rule it broke
+            assertTrue(result.getErrors().contains("Line 4: Invalid Student ID: BAD; Invalid Level: 150"),
+                    result.getErrors().toString());
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Test filtered student query")
+    public void testFindStudentsWithQuery() {
+        studentService.addStudent(new Student(queryId1, "Query Person", "Physics", 700, 1.5,
+                "query@example.com", "0244222222", LocalDateTime.now(), "Inactive"));
+
+        StudentQuery query = StudentQuery.all()
+                .withProgramme("Physics")
+                .withLevel(700)
+                .withStatus("Inactive")
+                .withSearchTerm(queryId1.toLowerCase());
+
+        List<Student> found = studentService.findStudents(query);
+        assertEquals(1, found.size());
+        assertEquals(queryId1, found.get(0).getStudentId());
+        assertEquals(1, studentService.countStudents(query));
+
+        // The table filter and the typeahead both match on email as well
+        assertEquals(1, studentService.countStudents(StudentQuery.all().withSearchTerm("query@example")));
+        assertEquals(List.of(queryId1), ids(studentService.searchStudents("query@example", 5)));
+
+        // LIKE wildcards in the search text are matched literally
+        assertTrue(studentService.findStudents(StudentQuery.all().withSearchTerm("%_%")).isEmpty());
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("Test keyset pagination visits every student once")
+    public void testFindStudentsPage() {
+        int total = studentService.countStudents(StudentQuery.all());
+        Set<String> seen = new HashSet<>();
+
+        StudentPage page = studentService.findStudentsPage(StudentQuery.all(), null, 3);
+        seen.addAll(page.getStudents().stream().map(Student::getStudentId).toList());
+        while (page.hasMore()) {
+            assertEquals(3, page.getStudents().size());
+            page = studentService.findStudentsPage(StudentQuery.all(), page.getNextCursor(), 3);
+            page.getStudents().forEach(s -> assertTrue(seen.add(s.getStudentId())));
+        }
+
+        assertEquals(total, seen.size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("Test streaming read matches count")
+    public void testStreamStudents() {
+        StudentQuery active = StudentQuery.all().withStatus("Active");
+        int[] streamed = {0};
+        studentService.forEachStudent(active, s -> {
+            assertEquals("Active", s.getStatus());
+            streamed[0]++;
+        });
+        assertEquals(studentService.countStudents(active), streamed[0]);
+
+        try (var stream = repository.streamStudents(StudentQuery.all().withLimit(2))) {
+            assertTrue(stream.count() <= 2);
+        }
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("Test SQL aggregates cover every active student")
+    public void testReportAggregatesMatchActiveCount() {
+        int activeCount = studentService.countStudents(StudentQuery.all().withStatus("Active"));
+
+        long distributionTotal = studentService.getGpaDistribution().values().stream()
+                .mapToLong(Long::longValue).sum();
+        int summaryTotal = studentService.getProgrammeSummary().values().stream()
+                .mapToInt(StudentService.ProgrammeStats::getStudentCount).sum();
+
+        assertEquals(activeCount, distributionTotal);
+        assertEquals(activeCount, summaryTotal);
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("Test full-text search ranks prefix matches and follows updates")
+    public void testSearchStudents() {
+        Student student = new Student(queryId1, "Query Person", "Physics", 700, 1.5,
+                "query@example.com", "0244222222", LocalDateTime.now(), "Inactive");
+        studentService.addStudent(student);
+
+        // Prefix match on the ID, and a substring in the middle of the name
+        List<Student> byId = studentService.searchStudents(queryId1.substring(0, 6).toLowerCase(), 50);
+        assertTrue(byId.stream().anyMatch(s -> s.getStudentId().equals(queryId1)));
+        assertEquals(queryId1, studentService.searchStudents("ery pers", 10).get(0).getStudentId());
+
+        // Renaming a student updates the index through the triggers
+        student.setFullName("Renamed Searchable");
+        studentService.updateStudent(student);
+        assertTrue(studentService.searchStudents("ery pers", 10).stream()
+                .noneMatch(s -> s.getStudentId().equals(queryId1)));
+        assertEquals(1, studentService.countStudents(StudentQuery.all().withSearchTerm("searchable")));
+
+        // Short terms and FTS operators in the text do not break the search
+        assertFalse(studentService.searchStudents("R", 5).isEmpty());
+        assertTrue(studentService.searchStudents("\" OR *", 5).isEmpty());
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("Test ID existence checks and re-import of existing IDs")
+    public void testExistingIds() throws IOException {
+        studentService.addStudent(new Student(batchId1, "Exists Check", "Physics", 100, 2.0,
+                "exists@example.com", "0244333333", LocalDateTime.now(), "Active"));
+
+        assertTrue(repository.existsById(batchId1));
+        assertFalse(repository.existsById(batchId2));
+
+        // More IDs than one IN (...) list holds
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < SQLiteStudentRepository.ID_LOOKUP_BATCH_SIZE + 10; i++) {
+            ids.add(TEST_ID_PREFIX + "MISS" + i);
+        }
+        ids.add(batchId1);
+        assertEquals(Set.of(batchId1), repository.existingIds(ids));
+
+        // A row already in the database is reported as a duplicate, the rest of the chunk is saved
+        Path csv = Files.createTempFile("students_reimport", ".csv");
+        try {
+            Files.writeString(csv,
+                    "Student ID,Full Name,Programme,Level,GPA,Email,Phone,Date Added,Status\n" +
+                    batchId1 + ",Exists Check,Physics,100,2.0,exists@example.com,0244333333,2026-02-20T12:00:00,Active\n" +
+                    batchId2 + ",New Row,Physics,100,2.0,new@example.com,0244333334,2026-02-20T12:00:00,Active\n");
+
+            StudentService.ImportResult result = studentService.importStudentsFromCsv(csv.toString());
+            assertEquals(1, result.getSuccessCount());
+            assertEquals(1, result.getErrorCount());
+            assertTrue(result.getErrors().get(0).contains("Duplicate Student ID"));
+            assertTrue(repository.existsById(batchId2));
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("Test bulk status change by ID and by filter")
+    public void testBulkStatusChange() {
+        for (String id : List.of(batchId1, batchId2)) {
+            studentService.addStudent(new Student(id, "Bulk Status", "Physics", 400, 2.5,
+                    "bulk@example.com", "0244444444", LocalDateTime.now(), "Active"));
+        }
+
+        assertEquals(2, studentService.setStatus(List.of(batchId1, batchId2), "Inactive"));
+        assertEquals("Inactive", studentService.findStudentById(batchId2).getStatus());
+        // Rows that already have the status are not counted again
+        assertEquals(0, studentService.setStatus(List.of(batchId1, batchId2), "Inactive"));
+
+        StudentQuery ours = StudentQuery.all().withSearchTerm(TEST_ID_PREFIX + "B0");
+        // The count shown before a bulk change skips rows already at the status
+        assertEquals(0, studentService.countStudents(ours.copy().withStatusNot("Inactive")));
+        assertEquals(2, studentService.countStudents(ours.copy().withStatusNot("Active")));
+        assertEquals(2, studentService.setStatusWhere(ours, "Active"));
+        assertEquals(2, studentService.countStudents(ours.withStatus("Active")));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> studentService.setStatus(List.of(batchId1), "Graduated"));
+
+        // Paging past the first page with only a status filter
+        StudentPage first = studentService.findStudentsPage(StudentQuery.all().withStatus("Active"), null, 1);
+        if (first.hasMore()) {
+            StudentPage second = studentService.findStudentsPage(
+                    StudentQuery.all().withStatus("Active"), first.getNextCursor(), 1);
+            assertEquals(1, second.getStudents().size());
+        }
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("Test CSV import modes for existing Student IDs")
+    public void testImportModes() throws IOException {
+        LocalDateTime added = LocalDateTime.of(2025, 9, 1, 8, 0);
+        studentService.addStudent(new Student(importId1, "Import Me", "Mathematics", 300, 3.3,
+                "imp@example.com", "0244111111", added, "Active"));
+
+        Path csv = Files.createTempFile("students_modes", ".csv");
+        try {
+            Files.writeString(csv,
+                    "Student ID,Full Name,Programme,Level,GPA,Email,Phone,Date Added,Status\n" +
+                    importId1 + ",Import Me,Mathematics,400,3.9,imp@example.com,0244111111,2026-02-20T12:00:00,Active\n" +
+                    queryId1 + ",Query Person,Physics,700,1.5,query@example.com,0244222222,2026-02-20T12:00:00,Active\n");
+
+            StudentService.ImportResult skip = studentService.importStudentsFromCsv(
+                    csv.toString(), StudentService.ImportMode.SKIP);
+            assertEquals(1, skip.getSuccessCount());
+            assertEquals(1, skip.getSkippedCount());
+            assertEquals(0, skip.getErrorCount());
+            assertEquals(300, studentService.findStudentById(importId1).getLevel());
+
+            // importId1 changes, queryId1 is already identical
+            StudentService.ImportResult update = studentService.importStudentsFromCsv(
+                    csv.toString(), StudentService.ImportMode.UPDATE);
+            assertEquals(1, update.getSuccessCount());
+            assertEquals(1, update.getSkippedCount());
+            Student updated = studentService.findStudentById(importId1);
+            assertEquals(400, updated.getLevel());
+            assertEquals(3.9, updated.getGpa());
+            assertEquals(added, updated.getDateAdded()); // Original date is kept
+
+            StudentService.ImportResult fail = studentService.importStudentsFromCsv(
+                    csv.toString(), StudentService.ImportMode.FAIL);
+            assertEquals(0, fail.getSuccessCount());
+            assertEquals(2, fail.getErrorCount());
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("Test change token and memoized reads")
+    public void testChangeTokenAndMemoizedReads() throws Exception {
+        StudentService.DashboardStats before = studentService.getDashboardStats();
+        long hits = studentService.getMemoHits();
+        assertSame(before, studentService.getDashboardStats());
+        assertEquals(hits + 1, studentService.getMemoHits());
+
+        // A write through this repository changes the token and drops the memoized result
+        long token = repository.getChangeToken();
+        studentService.addStudent(new Student(batchId1, "Token Change", "Physics", 100, 4.0,
+                "token@example.com", "0244555555", LocalDateTime.now(), "Active"));
+        assertNotEquals(token, repository.getChangeToken());
+        assertEquals(before.getTotalStudents() + 1, studentService.getDashboardStats().getTotalStudents());
+
+        // So does a commit from another connection (PRAGMA data_version)
+        token = repository.getChangeToken();
+        try (java.sql.Connection other = java.sql.DriverManager.getConnection(databaseUrl);
+             java.sql.Statement stmt = other.createStatement()) {
+            stmt.executeUpdate("UPDATE students SET status = 'Inactive' WHERE student_id = '" + batchId1 + "'");
+        }
+        assertNotEquals(token, repository.getChangeToken());
+        assertEquals(before.getActiveStudents(), studentService.getDashboardStats().getActiveStudents());
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("Test online backup gives a consistent copy and can be cancelled")
+    public void testBackupDatabase() throws Exception {
+        studentService.addStudent(new Student(batchId1, "Backup Student", "Physics", 100, 3.0,
+                "backup@example.com", "0244555555", LocalDateTime.now(), "Active"));
+        Path dir = Files.createTempDirectory("backup_test");
+        Path backup = dir.resolve("students_backup.db");
+        try {
+            List<Double> progress = new ArrayList<>();
+            studentService.backupDatabase(backup, fractionDone -> progress.add(fractionDone));
+            assertEquals(1.0, progress.get(progress.size() - 1));
+
+            try (SQLiteStudentRepository copy = new SQLiteStudentRepository("jdbc:sqlite:" + backup)) {
+                assertEquals(repository.countStudents(new StudentQuery()), copy.countStudents(new StudentQuery()));
+                assertNotNull(copy.findStudentById(batchId1));
+            }
+
+            // Returning false stops the copy and leaves no partial file behind
+            Path cancelled = dir.resolve("cancelled.db");
+            assertThrows(RuntimeException.class, () -> studentService.backupDatabase(cancelled, fractionDone -> false));
+            assertFalse(Files.exists(cancelled));
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    @Order(25)
+    @DisplayName("Test the change journal records inserts, updates and soft deletes in order")
+    public void testChangesSince() {
+        long seq = studentService.getLatestChangeSeq();
+        studentService.addStudent(new Student(batchId1, "Journal Student", "Physics", 100, 3.0,
+                "journal@example.com", "0244555555", LocalDateTime.now(), "Active"));
+        studentService.updateStudent(new Student(batchId1, "Journal Student", "Physics", 100, 3.4,
+                "journal@example.com", "0244555555", LocalDateTime.now(), "Active"));
+        studentService.setStatus(List.of(batchId1), "Inactive");
+
+        List<StudentChange.Type> types = repository.getChangesSince(seq, 100).stream()
+                .map(StudentChange::getType)
+                .toList();
+        assertEquals(List.of(StudentChange.Type.INSERT, StudentChange.Type.UPDATE, StudentChange.Type.DELETE), types);
+
+        // The service collapses them to the latest change, carrying the current row
+        List<StudentChange> latest = studentService.getChangesSince(seq);
+        assertEquals(1, latest.size());
+        assertEquals(StudentChange.Type.DELETE, latest.get(0).getType());
+        assertEquals("Inactive", latest.get(0).getStudent().getStatus());
+        assertTrue(latest.get(0).getSeq() > seq);
+        assertEquals(latest.get(0).getSeq(), studentService.getLatestChangeSeq());
+
+        // Pruning drops older entries but keeps the numbering going
+        long newest = latest.get(0).getSeq();
+        assertTrue(studentService.pruneChangesBefore(newest) >= 2);
+        assertEquals(List.of(newest), repository.getChangesSince(0, 100).stream().map(StudentChange::getSeq).toList());
+        studentService.setStatus(List.of(batchId1), "Active");
+        assertTrue(studentService.getLatestChangeSeq() > newest);
+    }
+
+    @Test
+    @Order(26)
+    @DisplayName("Test the report set matches the individual reports")
+    public void testGetReports() {
+        studentService.addStudent(new Student(batchId1, "Report Student", "Physics", 100, 3.9,
+                "report@example.com", "0244555555", LocalDateTime.now(), "Active"));
+        studentService.addStudent(new Student(batchId2, "Report Student", "Physics", 200, 1.2,
+                "report@example.com", "0244555556", LocalDateTime.now(), "Active"));
+
+        StudentService.ReportSet reports = studentService.getReports("Physics", null, 5, 2.0);
+        // Same queries as the single reports, so the same rows in the same order
+        assertEquals(ids(studentService.getTopPerformers("Physics", null, 5)), ids(reports.getTopPerformers()));
+        assertEquals(ids(studentService.getAtRiskStudents(2.0)), ids(reports.getAtRiskStudents()));
+        assertEquals(studentService.getGpaDistribution(), reports.getGpaDistribution());
+
+        Map<String, StudentService.ProgrammeStats> summary = studentService.getProgrammeSummary();
+        assertEquals(List.copyOf(summary.keySet()), List.copyOf(reports.getProgrammeSummary().keySet()));
+        for (String programme : summary.keySet()) {
+            assertEquals(summary.get(programme).getStudentCount(),
+                    reports.getProgrammeSummary().get(programme).getStudentCount());
+            assertEquals(summary.get(programme).getAverageGpa(),
+                    reports.getProgrammeSummary().get(programme).getAverageGpa());
+        }
+
+        // Unchanged data: the whole set is reused
+        assertSame(reports, studentService.getReports("Physics", null, 5, 2.0));
+    }
+
+    private static List<String> ids(List<Student> students) {
+        return students.stream().map(Student::getStudentId).toList();
+    }
+
+    @Test
+    @Order(27)
+    @DisplayName("Test top performers per programme with tie-break options")
+    public void testTopPerformersPerGroup() {
+        LocalDateTime earlier = LocalDateTime.of(2025, 9, 1, 8, 0);
+        studentService.addStudent(new Student(batchId2, "Zara Top", "Physics", 700, 4.0,
+                "top@example.com", "0244555556", earlier, "Active"));
+        studentService.addStudent(new Student(batchId1, "Abel Top", "Physics", 700, 4.0,
+                "top@example.com", "0244555555", earlier.plusDays(1), "Active"));
+
+        Map<String, List<Student>> perProgramme = studentService.getTopPerformers(
+                TopPerformerOptions.top(3).groupBy(TopPerformerOptions.GroupBy.PROGRAMME));
+        assertEquals(studentService.getProgrammeSummary().keySet(), perProgramme.keySet());
+        for (Map.Entry<String, List<Student>> group : perProgramme.entrySet()) {
+            assertTrue(group.getValue().size() <= 3);
+            // Same students as asking for that programme on its own
+            assertEquals(studentService.getTopPerformers(group.getKey(), null, 3).stream().map(Student::getGpa).toList(),
+                    group.getValue().stream().map(Student::getGpa).toList());
+        }
+
+        // Both test students tie on GPA; the tie-break decides who comes first
+        TopPerformerOptions level700 = TopPerformerOptions.top(100).withProgramme("Physics").withLevel(700);
+        List<Student> byName = studentService.getTopPerformers(level700).get(TopPerformerOptions.ALL_GROUP);
+        assertTrue(indexOf(byName, batchId1) < indexOf(byName, batchId2));
+        List<Student> byDate = studentService.getTopPerformers(
+                level700.copy().withTieBreak(TopPerformerOptions.TieBreak.DATE_ADDED)).get(TopPerformerOptions.ALL_GROUP);
+        assertTrue(indexOf(byDate, batchId2) < indexOf(byDate, batchId1));
+
+        Map<String, List<Student>> perLevel = studentService.getTopPerformers(TopPerformerOptions.top(1)
+                .withProgramme("Physics").groupBy(TopPerformerOptions.GroupBy.LEVEL));
+        assertEquals(4.0, perLevel.get("700").get(0).getGpa());
+    }
+
+    @Test
+    @Order(28)
+    @DisplayName("Test running aggregates follow inserts, updates and deletes")
+    public void testRunningAggregates() {
+        // Level 700 Physics: the test students hold the group's minimum and maximum
+        studentService.addStudent(new Student(batchId1, "Aggregate Low", "Physics", 700, 0.1,
+                "aggregate@example.com", "0244555555", LocalDateTime.now(), "Active"));
+        studentService.addStudent(new Student(batchId2, "Aggregate High", "Physics", 700, 3.99,
+                "aggregate@example.com", "0244555556", LocalDateTime.now(), "Active"));
+        assertAggregatesMatchStudents();
+
+        studentService.updateStudent(new Student(batchId1, "Aggregate Low", "Mathematics", 600, 2.5,
+                "aggregate@example.com", "0244555555", LocalDateTime.now(), "Active"));
+        assertAggregatesMatchStudents();
+
+        studentService.setStatus(List.of(batchId2), "Inactive");
+        assertAggregatesMatchStudents();
+
+        repository.hardDeleteStudent(batchId1);
+        repository.hardDeleteStudent(batchId2);
+        assertAggregatesMatchStudents();
+
+        StudentService.DashboardStats stats = studentService.getDashboardStats();
+        assertEquals(repository.countStudents(new StudentQuery()), stats.getTotalStudents());
+        assertEquals(repository.countStudents(new StudentQuery().withStatus("Active")), stats.getActiveStudents());
+    }
+
+    // Recompute every group from the students themselves and compare
+    private void assertAggregatesMatchStudents() {
+        Map<String, List<Double>> byProgramme = new TreeMap<>();
+        Map<String, List<Double>> byLevel = new TreeMap<>();
+        repository.forEachStudent(new StudentQuery().withStatus("Active"), s -> {
+            byProgramme.computeIfAbsent(s.getProgramme(), k -> new ArrayList<>()).add(s.getGpa());
+            byLevel.computeIfAbsent(String.valueOf(s.getLevel()), k -> new ArrayList<>()).add(s.getGpa());
+        });
+        assertAggregates(byProgramme, repository.aggregateByProgramme(new StudentQuery().withStatus("Active")));
+        assertAggregates(byLevel, repository.aggregateByLevel(new StudentQuery().withStatus("Active")));
+    }
+
+    private void assertAggregates(Map<String, List<Double>> expected, List<StudentAggregate> actual) {
+        assertEquals(List.copyOf(expected.keySet()), actual.stream().map(StudentAggregate::getKey).toList());
+        for (StudentAggregate aggregate : actual) {
+            List<Double> gpas = expected.get(aggregate.getKey());
+            assertEquals(gpas.size(), aggregate.getCount());
+            assertEquals(gpas.stream().mapToDouble(Double::doubleValue).sum(), aggregate.getSumGpa(), 1e-6);
+            assertEquals(gpas.stream().mapToDouble(g -> g * g).sum(), aggregate.getSumSquaresGpa(), 1e-6);
+            assertEquals(gpas.stream().mapToDouble(Double::doubleValue).min().orElseThrow(), aggregate.getMinGpa());
+            assertEquals(gpas.stream().mapToDouble(Double::doubleValue).max().orElseThrow(), aggregate.getMaxGpa());
+        }
+    }
+
+    private static int indexOf(List<Student> students, String studentId) {
+        for (int i = 0; i < students.size(); i++) {
+            if (students.get(i).getStudentId().equals(studentId)) return i;
+        }
+        fail(studentId + " missing from " + students.size() + " students");
+        return -1;
+    }
+
     @AfterAll
-    public static void tearDown() {
-        // Final cleanup
-        cleanupTestData();
+    public static void tearDown() throws IOException {
+        repository.close();
+        try (var files = Files.list(workDir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(workDir);
     }
 }
\ No newline at end of file
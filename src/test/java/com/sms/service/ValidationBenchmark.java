@@ -0,0 +1,132 @@
+package com.sms.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Validations per second for the per-row import validators: the old String.matches /
+// replaceAll versions (which compile their regex on every call) against the
+// ValidationService character scans. Then whole CSV rows: validateCsvRow one row at
+// a time against validateAll across the ForkJoin pool.
+// Not a unit test (surefire skips it) - run main() by hand on the test classpath.
+public class ValidationBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int CSV_ROWS = 1_000_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) {
+        String[][] rows = generateRows();
+
+        double regex = measure(() -> validateAll(rows, true));
+        double scan = measure(() -> validateAll(rows, false));
+        // Three validators per row
+        System.out.printf("Regex (before): %,.0f validations/s%n", 3 * ROWS / (regex / 1e9));
+        System.out.printf("Scan (after)  : %,.0f validations/s (%.1fx)%n", 3 * ROWS / (scan / 1e9), regex / scan);
+
+        List<String[]> csvRows = generateCsvRows();
+        double oneByOne = measure(() -> {
+            long valid = 0;
+            for (String[] row : csvRows) {
+                if (ValidationService.validateCsvRow(row).isValid()) valid++;
+            }
+            return valid;
+        });
+        double bulk = measure(() -> ValidationService.validateAll(csvRows).getInvalidCount());
+        System.out.printf("validateCsvRow: %,.0f rows/s%n", CSV_ROWS / (oneByOne / 1e9));
+        System.out.printf("validateAll   : %,.0f rows/s (%.1fx on %d cores)%n", CSV_ROWS / (bulk / 1e9),
+                oneByOne / bulk, Runtime.getRuntime().availableProcessors());
+    }
+
+    private interface Workload {
+        long run();
+    }
+
+    // Median nanoseconds per round, after warming up the JIT
+    private static double measure(Workload workload) {
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            checksum += workload.run();
+        }
+        long[] times = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            checksum += workload.run();
+            times[i] = System.nanoTime() - start;
+        }
+        if (checksum == 42) System.out.print(""); // Keep the results alive
+        Arrays.sort(times);
+        return times[MEASURED_ROUNDS / 2];
+    }
+
+    private static long validateAll(String[][] rows, boolean regex) {
+        long valid = 0;
+        for (String[] row : rows) {
+            if (regex) {
+                if (LegacyValidators.isValidStudentId(row[0])) valid++;
+                if (LegacyValidators.isValidFullName(row[1])) valid++;
+                if (LegacyValidators.isValidPhoneNumber(row[2])) valid++;
+            } else {
+                if (ValidationService.isValidStudentId(row[0])) valid++;
+                if (ValidationService.isValidFullName(row[1])) valid++;
+                if (ValidationService.isValidPhoneNumber(row[2])) valid++;
+            }
+        }
+        return valid;
+    }
+
+    // Mostly valid rows, as in a real import, with some bad IDs, names and phones
+    private static String[][] generateRows() {
+        Random random = new Random(42);
+        String[][] rows = new String[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            boolean bad = random.nextInt(10) == 0;
+            rows[i] = new String[] {
+                    bad ? "ID-" + i : String.format("STU%06d", i),
+                    bad ? "Student " + i : "Benchmark Student Number",
+                    bad ? "024-" + i : String.format("(024) 4%03d-%04d", i % 1000, i % 10_000)
+            };
+        }
+        return rows;
+    }
+
+    private static List<String[]> generateCsvRows() {
+        Random random = new Random(42);
+        List<String[]> rows = new ArrayList<>(CSV_ROWS);
+        for (int i = 0; i < CSV_ROWS; i++) {
+            boolean bad = random.nextInt(10) == 0;
+            rows.add(new String[] {
+                    String.format("STU%07d", i), bad ? "Student " + i : "Benchmark Student",
+                    "Physics", bad ? "150" : "300", "3.25", "student@example.com",
+                    "0244555555", "2026-01-15T09:30:00", "Active"
+            });
+        }
+        return rows;
+    }
+
+    // The validators as they were, for comparison
+    static final class LegacyValidators {
+
+        static boolean isValidStudentId(String id) {
+            if (id == null || id.trim().isEmpty()) return false;
+            String trimmed = id.trim();
+            return trimmed.matches("^[a-zA-Z0-9]{4,20}$");
+        }
+
+        static boolean isValidFullName(String name) {
+            if (name == null) return false;
+            String trimmed = name.trim();
+            if (trimmed.length() < 2 || trimmed.length() > 60) return false;
+            if (trimmed.matches(".*\\d.*")) return false;
+            return !trimmed.matches("^\\s+$");
+        }
+
+        static boolean isValidPhoneNumber(String phone) {
+            if (phone == null) return false;
+            String trimmed = phone.trim().replaceAll("[\\s\\-\\(\\)]", "");
+            return trimmed.matches("^\\d{10,15}$");
+        }
+    }
+}
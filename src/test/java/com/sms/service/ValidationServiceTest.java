@@ -0,0 +1,118 @@
+package com.sms.service;
+
+import org.junit.jupiter.api.*;
+
+import com.sms.domain.Student;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidationServiceTest {
+
+    // Characters the old regexes treated specially, plus some they did not
+    private static final char[] ALPHABET = {
+            'a', 'Z', '0', '9', ' ', '\t', '\n', '\r', '\u000B', '\f', '\u0001', '\u0085', '\u2028',
+            '\u00A0', '-', '(', ')', '.', '@', '\u00E9', '\u0663'
+    };
+
+    @Test
+    @DisplayName("Test character-scan validators agree with the old regex versions")
+    public void testMatchesRegexValidators() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            String value = randomString(random);
+            assertEquals(ValidationBenchmark.LegacyValidators.isValidStudentId(value),
+                    ValidationService.isValidStudentId(value), () -> "Student ID " + escape(value));
+            assertEquals(ValidationBenchmark.LegacyValidators.isValidFullName(value),
+                    ValidationService.isValidFullName(value), () -> "Full Name " + escape(value));
+            assertEquals(ValidationBenchmark.LegacyValidators.isValidPhoneNumber(value),
+                    ValidationService.isValidPhoneNumber(value), () -> "Phone " + escape(value));
+        }
+    }
+
+    @Test
+    @DisplayName("Test validators on typical values")
+    public void testTypicalValues() {
+        assertTrue(ValidationService.isValidStudentId(" STU001 "));
+        assertFalse(ValidationService.isValidStudentId("ST-001"));
+        assertFalse(ValidationService.isValidStudentId("STU"));
+        assertFalse(ValidationService.isValidStudentId(null));
+
+        assertTrue(ValidationService.isValidFullName("Ama Mensah"));
+        assertFalse(ValidationService.isValidFullName("Ama Mensah 2"));
+        assertFalse(ValidationService.isValidFullName(" A "));
+
+        assertTrue(ValidationService.isValidPhoneNumber("(024) 455-5555"));
+        assertTrue(ValidationService.isValidPhoneNumber("0244555555"));
+        assertFalse(ValidationService.isValidPhoneNumber("+233244555555"));
+        assertFalse(ValidationService.isValidPhoneNumber("024455555"));
+    }
+
+    @Test
+    @DisplayName("Test bulk validation gives the same errors as row-by-row validation")
+    public void testValidateAll() {
+        // Enough rows to be split across the ForkJoin pool
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rows.add(switch (i % 4) {
+                case 0 -> new String[] {"STU" + (1000 + i), "Ama Mensah", "Physics", "100", "3.5",
+                        "ama@example.com", "0244555555", "2026-01-15T09:30:00", "Active"};
+                case 1 -> new String[] {"S" + i, "Ama " + i, "", "abc", "4.5",
+                        "ama", "12345", "yesterday", "Gone"};
+                case 2 -> new String[] {"STU" + (1000 + i), "Kofi Boateng", "Physics", "150", "2.0",
+                        "kofi@example.com", "0244555555", "2026-01-15T09:30:00", "inactive"};
+                default -> new String[] {"STU" + i, "Too Few"};
+            });
+        }
+
+        ValidationService.BulkValidationResult result = ValidationService.validateAll(rows);
+        assertEquals(rows.size(), result.size());
+        assertEquals(7_500, result.getInvalidCount());
+        for (int row = 0; row < rows.size(); row++) {
+            ValidationService.ValidationResult single = ValidationService.validateCsvRow(rows.get(row));
+            assertEquals(single.isValid(), result.isValid(row));
+            assertEquals(single.getErrors(), result.getErrors(row));
+        }
+
+        assertTrue(result.hasError(1, ValidationService.ErrorCode.LEVEL_FORMAT));
+        assertFalse(result.hasError(1, ValidationService.ErrorCode.LEVEL));
+        assertEquals(ValidationService.ErrorCode.LEVEL.bit(), result.getErrorMask(2));
+        assertEquals(ValidationService.ErrorCode.FIELD_COUNT.bit(), result.getErrorMask(3));
+        assertArrayEquals(new int[] {1, 2, 3, 5}, Arrays.copyOf(result.getInvalidRows(), 4));
+
+        ValidationService.BulkValidationResult students = ValidationService.validateAllStudents(List.of(
+                new Student("STU001", "Ama Mensah", "Physics", 100, 3.5,
+                        "ama@example.com", "0244555555", LocalDateTime.now(), "Active"),
+                new Student("STU002", "Kofi Boateng", "Physics", 100, 5.0,
+                        "kofi@example.com", "0244555555", LocalDateTime.now(), "active")));
+        assertTrue(students.isValid(0));
+        assertEquals(List.of("GPA must be between 0.0 and 4.0", "Status must be 'Active' or 'Inactive'"),
+                students.getErrors(1));
+    }
+
+    private static String randomString(Random random) {
+        // Lengths around the limits of each validator
+        int length = random.nextInt(25);
+        if (random.nextInt(8) == 0) length = 55 + random.nextInt(10);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            // Mostly digits, so phone numbers of the right length come up often
+            sb.append(random.nextInt(3) == 0 ? ALPHABET[random.nextInt(ALPHABET.length)]
+                    : (char) ('0' + random.nextInt(10)));
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            sb.append(c < ' ' || c > '~' ? String.format("\\u%04X", (int) c) : String.valueOf(c));
+        }
+        return sb.toString();
+    }
+}